@@ -0,0 +1,43 @@
+package cn.arorms.list.backend.benchmark;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Signs access tokens shaped like the ones of the auth server, for benchmarks and load tests only.
+ */
+final class BenchmarkTokens {
+    // Must match spring.security.oauth2.resourceserver.jwt.issuer-uri
+    static final String ISSUER = "https://auth.arorms.cn";
+
+    private BenchmarkTokens() {
+    }
+
+    static RSAKey generateKey() throws JOSEException {
+        return new RSAKeyGenerator(2048).keyID("benchmark").generate();
+    }
+
+    static String sign(RSAKey key, String subject, Duration ttl) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(subject)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(ttl)))
+                .claim("scope", "openid profile")
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
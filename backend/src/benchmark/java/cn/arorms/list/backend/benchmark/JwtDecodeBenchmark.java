@@ -0,0 +1,67 @@
+package cn.arorms.list.backend.benchmark;
+
+import cn.arorms.list.backend.configs.CachingJwtDecoder;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token decoding as wired by JwtConfig: RS256 signature check and issuer/timestamp validation,
+ * with and without the CachingJwtDecoder in front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtDecodeBenchmark {
+    private JwtDecoder verifying;
+    private JwtDecoder caching;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey key = BenchmarkTokens.generateKey();
+        Set<JWSAlgorithm> algorithms = new HashSet<>();
+        algorithms.addAll(JWSAlgorithm.Family.RSA);
+        algorithms.addAll(JWSAlgorithm.Family.EC);
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms,
+                new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK()))));
+        processor.setJWSTypeVerifier((type, context) -> { });
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(BenchmarkTokens.ISSUER));
+
+        verifying = decoder;
+        caching = new CachingJwtDecoder(decoder, 10_000, new SimpleMeterRegistry());
+        token = BenchmarkTokens.sign(key, "test", Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return verifying.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return caching.decode(token);
+    }
+}
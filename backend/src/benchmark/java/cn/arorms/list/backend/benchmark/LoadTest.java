@@ -0,0 +1,170 @@
+package cn.arorms.list.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of the read endpoints of TodoController and GroupController.
+ * Each worker sends the next request as soon as the previous one returns; samples taken during the
+ * warmup are dropped. Latency percentiles and throughput per endpoint are written as JSON to load.report.
+ *
+ * The first run creates a signing key in load.key and its public JWK set next to it, start the backend
+ * against that set and seed the database, then run again:
+ *   JWK_SET_URI= JWK_SET_FILE=target/load/jwks.json mvn spring-boot:run
+ *   psql -f src/test/insert_test_user.sql -f src/test/load/seed_todos.sql
+ *   mvn -Pbenchmark test-compile exec:exec@load -Dload.concurrency=100
+ */
+public final class LoadTest {
+    private static final List<Endpoint> ENDPOINTS = List.of(
+            new Endpoint("todo.page", "/api/todo?page=0&size=20"),
+            new Endpoint("todo.scroll", "/api/todo/scroll?size=20"),
+            new Endpoint("todo.deadline", "/api/todo/deadline?page=0&size=20"),
+            new Endpoint("todo.search", "/api/todo/search?q=report&size=20"),
+            new Endpoint("group.list", "/api/group"),
+            new Endpoint("stats", "/api/stats"));
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.baseUrl", "http://localhost:8080");
+        Path keyFile = Path.of(System.getProperty("load.key", "target/load/signing-key.json"));
+        String user = System.getProperty("load.user", "test");
+        int concurrency = Integer.parseInt(System.getProperty("load.concurrency", "50"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT60S"));
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Path report = Path.of(System.getProperty("load.report", "target/load-report.json"));
+
+        if (Files.notExists(keyFile)) {
+            RSAKey key = BenchmarkTokens.generateKey();
+            Files.createDirectories(keyFile.toAbsolutePath().getParent());
+            Files.writeString(keyFile, key.toJSONString());
+            Path jwks = keyFile.resolveSibling("jwks.json");
+            Files.writeString(jwks, new JWKSet(key.toPublicJWK()).toString());
+            System.out.println("Created " + keyFile + ", restart the backend with JWK_SET_URI= JWK_SET_FILE=" + jwks
+                    + " and run again.");
+            return;
+        }
+        RSAKey key = RSAKey.parse(Files.readString(keyFile));
+        String authorization = "Bearer " + BenchmarkTokens.sign(key, user, duration.plus(warmup).plusMinutes(5));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        Map<Endpoint, Recorder> recorders = new LinkedHashMap<>();
+        ENDPOINTS.forEach(endpoint -> recorders.put(endpoint, new Recorder()));
+
+        Instant start = Instant.now();
+        Instant measureFrom = start.plus(warmup);
+        Instant end = measureFrom.plus(duration);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int offset = w;
+                workers.submit(() -> {
+                    for (int i = offset; Instant.now().isBefore(end); i++) {
+                        Endpoint endpoint = ENDPOINTS.get(i % ENDPOINTS.size());
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path()))
+                                .header("Authorization", authorization)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long sent = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long latency = System.nanoTime() - sent;
+                        if (Instant.now().isAfter(measureFrom)) {
+                            recorders.get(endpoint).record(latency, ok);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", start.toString());
+        result.put("baseUrl", baseUrl);
+        result.put("concurrency", concurrency);
+        result.put("durationSeconds", duration.toSeconds());
+        result.put("warmupSeconds", warmup.toSeconds());
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        recorders.forEach((endpoint, recorder) -> endpoints.add(recorder.summary(endpoint, duration)));
+        result.put("endpoints", endpoints);
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), result);
+        endpoints.forEach(System.out::println);
+        System.out.println("Report written to " + report);
+    }
+
+    private record Endpoint(String name, String path) {
+    }
+
+    /**
+     * Latencies of one endpoint in nanoseconds.
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long latency, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized Map<String, Object> summary(Endpoint endpoint, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("name", endpoint.name());
+            summary.put("path", endpoint.path());
+            summary.put("requests", count);
+            summary.put("errors", errors.get());
+            summary.put("throughput", count / (double) duration.toSeconds());
+            summary.put("meanMs", count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1e6);
+            summary.put("p50Ms", percentile(sorted, 0.50));
+            summary.put("p90Ms", percentile(sorted, 0.90));
+            summary.put("p99Ms", percentile(sorted, 0.99));
+            summary.put("maxMs", count == 0 ? 0 : sorted[count - 1] / 1e6);
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
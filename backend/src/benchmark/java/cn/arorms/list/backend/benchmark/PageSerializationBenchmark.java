@@ -0,0 +1,74 @@
+package cn.arorms.list.backend.benchmark;
+
+import cn.arorms.list.backend.pojos.dtos.TodoSummary;
+import cn.arorms.list.backend.pojos.entities.Group;
+import cn.arorms.list.backend.pojos.entities.Todo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a todo page, the full entities against the TodoSummary listing projection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+    @Param({"20", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Page<Todo> todoPage;
+    private Page<TodoSummary> summaryPage;
+
+    @Setup
+    public void setUp() {
+        // Same modules and features as the mapper Spring Boot configures
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Group group = Group.builder().id(6L).name("Work").description("Office tasks").orderKey(65536).createdBy("test").build();
+        LocalDateTime now = LocalDateTime.now();
+        List<Todo> todos = new ArrayList<>(size);
+        List<TodoSummary> summaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Todo todo = Todo.builder()
+                    .id((long) i)
+                    .createdBy("test")
+                    .group(group)
+                    .title("Task " + i + " prepare the weekly report")
+                    .description("Collect numbers from every team and write the summary for the meeting.")
+                    .isCompleted(i % 3 == 0)
+                    .createdAt(now.minusMinutes(i))
+                    .deadline(now.plusDays(i % 7))
+                    .orderKey(-1024L * i)
+                    .changeSeq(1000L + i)
+                    .build();
+            todos.add(todo);
+            summaries.add(new TodoSummary(todo.getId(), todo.getTitle(), todo.getIsCompleted(), todo.getCreatedAt(),
+                    todo.getDeadline(), todo.getOrderKey(), group.getId(), group.getName()));
+        }
+        todoPage = new PageImpl<>(todos, PageRequest.of(0, size), 100_000);
+        summaryPage = new PageImpl<>(summaries, PageRequest.of(0, size), 100_000);
+    }
+
+    @Benchmark
+    public byte[] todoPage() throws Exception {
+        return objectMapper.writeValueAsBytes(todoPage);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+}
@@ -0,0 +1,17 @@
+package cn.arorms.list.backend.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * AsyncConfig
+ * @Async work runs on the auto-configured applicationTaskExecutor, @Scheduled work on the taskScheduler.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+}
@@ -0,0 +1,20 @@
+package cn.arorms.list.backend.configs;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CacheConfig
+ * Backend is chosen by spring.cache.type, caffeine in process by default, simple as a stand-in for tests.
+ * Cached values (pages of TodoSummary, CursorPage, TodoStats, Group lists) are Serializable, so a serializing
+ * backend can hold them. Keys carry the per-node versions of UserVersionService, so a cache shared between
+ * nodes needs shared versions first: one node's version n is not another node's version n.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String GROUPS = "groups";
+    public static final String TODO_PAGES = "todoPages";
+}
@@ -0,0 +1,76 @@
+package cn.arorms.list.backend.configs;
+
+import cn.arorms.list.backend.services.UserVersionService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSourceConfig
+ * Read/write splitting, only active once application.datasource.replica-urls lists at least one replica.
+ * Connections are fetched lazily, after the transaction is marked readOnly: readOnly transactions
+ * go through ReplicaRoutingDataSource, everything else, Flyway and LISTEN/NOTIFY included, to the primary.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.datasource.replica-urls")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            DataSourceProperties properties,
+            UserVersionService userVersionService,
+            MeterRegistry meterRegistry,
+            @Value("${application.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${application.datasource.replica-pool-size:10}") int replicaPoolSize,
+            @Value("${application.datasource.replica-max-lag:1s}") Duration maxLag,
+            @Value("${application.datasource.read-your-writes:5s}") Duration readYourWrites) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // Short, so an unreachable replica falls back to the primary quickly
+            replica.setConnectionTimeout(1000);
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, userVersionService, readYourWrites, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+}
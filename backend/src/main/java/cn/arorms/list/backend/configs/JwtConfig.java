@@ -0,0 +1,179 @@
+package cn.arorms.list.backend.configs;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JwtConfig
+ * Verifies tokens against the issuer's JWK set, its jwks_uri is discovered from the issuer metadata on first use
+ * instead of at startup. jwk-set-uri skips the discovery, a local jwk-set-file is the fallback or the only source.
+ * Remote keys are cached and refreshed in the background; while the issuer is unreachable the last keys
+ * keep being served, then the local file.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Configuration
+public class JwtConfig {
+
+    @Bean
+    public JwtDecoder jwtDecoder(
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+            @Value("${application.security.jwt.jwk-set-uri:}") String jwkSetUri,
+            @Value("${application.security.jwt.jwk-set-file:}") String jwkSetFile,
+            @Value("${application.security.jwt.token-cache-size:10000}") long tokenCacheSize,
+            MeterRegistry meterRegistry
+    ) throws IOException, ParseException {
+        Set<JWSAlgorithm> algorithms = new HashSet<>();
+        algorithms.addAll(JWSAlgorithm.Family.RSA);
+        algorithms.addAll(JWSAlgorithm.Family.EC);
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource(issuer, jwkSetUri, jwkSetFile)));
+        // typ and claims are checked by Spring's validators below
+        processor.setJWSTypeVerifier((type, context) -> { });
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return new CachingJwtDecoder(decoder, tokenCacheSize, meterRegistry);
+    }
+
+    private JWKSource<SecurityContext> jwkSource(String issuer, String jwkSetUri, String jwkSetFile)
+            throws IOException, ParseException {
+        JWKSource<SecurityContext> local = jwkSetFile.isBlank()
+                ? null
+                : new ImmutableJWKSet<>(JWKSet.load(new File(jwkSetFile)));
+        if (!jwkSetUri.isBlank()) {
+            return remoteSource(URI.create(jwkSetUri).toURL(), local);
+        }
+        if (issuer.isBlank()) {
+            if (local == null) {
+                throw new IllegalStateException("Set the issuer-uri, application.security.jwt.jwk-set-uri or jwk-set-file.");
+            }
+            return local;
+        }
+        return new DiscoveredJwkSource(issuer, local);
+    }
+
+    private static JWKSource<SecurityContext> remoteSource(URL jwkSetUrl, JWKSource<SecurityContext> local) {
+        // Fetched on first use, not at startup
+        JWKSourceBuilder<SecurityContext> builder = JWKSourceBuilder.<SecurityContext>create(jwkSetUrl)
+                .cache(TimeUnit.MINUTES.toMillis(15), TimeUnit.SECONDS.toMillis(15))
+                // Refresh a minute before expiry on a background thread, requests keep using the cached set
+                .refreshAheadCache(TimeUnit.MINUTES.toMillis(1), true)
+                // Serve the last good set for a day while the issuer is down
+                .outageTolerant(TimeUnit.DAYS.toMillis(1))
+                .retrying(true);
+        if (local != null) {
+            builder = builder.failover(local);
+        }
+        return builder.build();
+    }
+
+    // Looks up jwks_uri in the issuer metadata when keys are first needed, the way issuer-uri does at startup.
+    // Until the lookup succeeds the local file answers, a failed lookup is retried after RETRY_AFTER.
+    private static final class DiscoveredJwkSource implements JWKSource<SecurityContext> {
+        private static final List<String> METADATA_PATHS =
+                List.of("/.well-known/openid-configuration", "/.well-known/oauth-authorization-server");
+        private static final long RETRY_AFTER = TimeUnit.SECONDS.toNanos(30);
+        private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+        private static final Duration READ_TIMEOUT = Duration.ofSeconds(3);
+        private final String issuer;
+        private final JWKSource<SecurityContext> local;
+        private final RestClient restClient;
+        // Held by the one request discovering, the others fail fast instead of queueing behind it
+        private final ReentrantLock discovering = new ReentrantLock();
+        private volatile JWKSource<SecurityContext> remote;
+        private volatile long retryAtNanos = System.nanoTime();
+
+        private DiscoveredJwkSource(String issuer, JWKSource<SecurityContext> local) {
+            this.issuer = issuer.endsWith("/") ? issuer.substring(0, issuer.length() - 1) : issuer;
+            this.local = local;
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(CONNECT_TIMEOUT);
+            requestFactory.setReadTimeout(READ_TIMEOUT);
+            this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        }
+
+        @Override
+        public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+            JWKSource<SecurityContext> source = remote;
+            if (source == null) {
+                if (local != null && System.nanoTime() - retryAtNanos < 0) {
+                    return local.get(jwkSelector, context);
+                }
+                if (!discovering.tryLock()) {
+                    if (local == null) {
+                        throw new KeySourceException("The JWK set of " + issuer + " is being discovered");
+                    }
+                    return local.get(jwkSelector, context);
+                }
+                try {
+                    source = discover();
+                } catch (RuntimeException | MalformedURLException e) {
+                    retryAtNanos = System.nanoTime() + RETRY_AFTER;
+                    if (local == null) {
+                        throw new KeySourceException("Could not discover the JWK set of " + issuer, e);
+                    }
+                    return local.get(jwkSelector, context);
+                } finally {
+                    discovering.unlock();
+                }
+            }
+            return source.get(jwkSelector, context);
+        }
+
+        // Bounded by the client timeouts, at most both metadata paths one after the other
+        private JWKSource<SecurityContext> discover() throws MalformedURLException {
+            if (remote != null) {
+                return remote;
+            }
+            RuntimeException failure = null;
+            for (String path : METADATA_PATHS) {
+                try {
+                    Map<?, ?> metadata = restClient.get().uri(issuer + path).retrieve().body(Map.class);
+                    if (metadata != null && metadata.get("jwks_uri") instanceof String jwksUri) {
+                        remote = remoteSource(URI.create(jwksUri).toURL(), local);
+                        return remote;
+                    }
+                } catch (RestClientException e) {
+                    failure = e;
+                }
+            }
+            throw failure != null ? failure : new IllegalStateException("No jwks_uri in the metadata of " + issuer);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package cn.arorms.list.backend.configs;
+
+import cn.arorms.list.backend.services.UserVersionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReplicaRoutingDataSource
+ * Read-only DataSource behind the LazyConnectionDataSourceProxy of DataSourceConfig, so it only
+ * hands out connections of readOnly transactions. Picks a replica round robin among those whose
+ * replay lag is within max-lag, and falls back to the primary when the current user changed data
+ * within the read-your-writes window, when no replica is healthy, or when a replica refuses a connection.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    // Seconds the replica's replay is behind, 0 once it replayed everything it received
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final UserVersionService userVersionService;
+    private final Duration readYourWrites;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, UserVersionService userVersionService,
+                                    Duration readYourWrites, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.userVersionService = userVersionService;
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        for (int i = 0; i < this.replicas.size(); i++) {
+            Gauge.builder("datasource.replica.lag", this.replicas.get(i), replica -> replica.lagSeconds)
+                    .tag("replica", String.valueOf(i))
+                    .baseUnit("seconds")
+                    .description("Replay lag of the read replica, NaN while unreachable")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!mustReadPrimary()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.down(e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    // Explicit credentials only fit the primary, the replica pools are set up with their own
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // Lag of every replica, one query each; the interval adds to the staleness a read may see
+    @Scheduled(fixedRateString = "${application.datasource.replica-check-ms:1000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try {
+                Double lag = replica.jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+                replica.lagSeconds = lag != null ? lag : 0;
+                boolean healthy = replica.lagSeconds <= maxLagSeconds;
+                if (healthy != replica.healthy) {
+                    log.info("Replica {} {} with lag {}s", replicas.indexOf(replica), healthy ? "in use" : "skipped",
+                            replica.lagSeconds);
+                }
+                replica.healthy = healthy;
+            } catch (RuntimeException e) {
+                replica.down(e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean mustReadPrimary() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && userVersionService.changedWithin(authentication.getName(), readYourWrites);
+    }
+
+    /**
+     * One replica pool with the result of its last lag check, unused until the first check passes.
+     */
+    private final class Replica {
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.jdbcTemplate.setQueryTimeout(2);
+        }
+
+        private void down(String reason) {
+            if (healthy) {
+                log.warn("Replica {} skipped: {}", replicas.indexOf(this), reason);
+            }
+            healthy = false;
+            lagSeconds = Double.NaN;
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package cn.arorms.list.backend.controllers;
 
 import cn.arorms.list.backend.pojos.entities.Group;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
 import cn.arorms.list.backend.services.GroupService;
+import cn.arorms.list.backend.services.UserVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 /**
@@ -18,15 +23,24 @@ import java.util.List;
 public class GroupController {
     @Autowired
     private GroupService groupService;
-    public GroupController(GroupService groupService) {
+    private final UserVersionService userVersionService;
+    public GroupController(GroupService groupService, UserVersionService userVersionService) {
         this.groupService = groupService;
+        this.userVersionService = userVersionService;
     }
 
-    // Get all groups
+    // Get all groups, answers If-None-Match with 304 before touching the database
     @GetMapping()
-    public List<Group> getAllGroups(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<List<Group>> getAllGroups(@AuthenticationPrincipal Jwt jwt, WebRequest request) {
         String username = jwt.getSubject();
-        return groupService.getAllByUsername(username);
+        String etag = userVersionService.etag(username, ResourceType.GROUP);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(groupService.getAllByUsername(username));
     }
 
     // Add a new group
@@ -51,8 +65,9 @@ public class GroupController {
 
     // Delete the group
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteGroup(@PathVariable Long id) {
-        groupService.deleteGroup(id);
+    public ResponseEntity<Void> deleteGroup(@AuthenticationPrincipal Jwt jwt, @PathVariable Long id) {
+        String username = jwt.getSubject();
+        groupService.deleteGroup(username, id);
         return ResponseEntity.ok().build();
     }
 }
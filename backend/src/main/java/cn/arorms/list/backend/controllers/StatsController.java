@@ -0,0 +1,29 @@
+package cn.arorms.list.backend.controllers;
+
+import cn.arorms.list.backend.pojos.dtos.TodoStats;
+import cn.arorms.list.backend.services.StatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * StatsController
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@RestController @RequestMapping("/api/stats")
+public class StatsController {
+    private final StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    // Total, completed, overdue and due within days, per group and overall
+    @GetMapping()
+    public ResponseEntity<TodoStats> getStats(@AuthenticationPrincipal Jwt jwt,
+                                              @RequestParam(value = "days", defaultValue = "3") int days) {
+        return ResponseEntity.ok(statsService.getStats(jwt.getSubject(), days));
+    }
+}
@@ -0,0 +1,35 @@
+package cn.arorms.list.backend.controllers;
+
+import cn.arorms.list.backend.services.ChangeStreamService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * StreamController
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@RestController @RequestMapping("/api/stream")
+public class StreamController {
+    private final ChangeStreamService changeStreamService;
+
+    public StreamController(ChangeStreamService changeStreamService) {
+        this.changeStreamService = changeStreamService;
+    }
+
+    // Change stream of the current user, "change" events carry upserted and deleted ids per type
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(changeStreamService.subscribe(jwt.getSubject()));
+    }
+}
@@ -0,0 +1,36 @@
+package cn.arorms.list.backend.controllers;
+
+import cn.arorms.list.backend.pojos.dtos.SyncPushRequest;
+import cn.arorms.list.backend.pojos.dtos.SyncPushResponse;
+import cn.arorms.list.backend.pojos.dtos.SyncResponse;
+import cn.arorms.list.backend.services.SyncService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * SyncController
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@RestController @RequestMapping("/api/sync")
+public class SyncController {
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // Changes since the token of the previous sync, omit since for a full snapshot
+    @GetMapping()
+    public ResponseEntity<SyncResponse> sync(@AuthenticationPrincipal Jwt jwt, @RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(syncService.changesSince(jwt.getSubject(), since));
+    }
+
+    // Queued offline mutations, answered with per-operation results and the changes since the given token
+    @PostMapping()
+    public ResponseEntity<SyncPushResponse> push(@AuthenticationPrincipal Jwt jwt, @RequestBody SyncPushRequest request) {
+        return ResponseEntity.ok(syncService.push(jwt.getSubject(), request));
+    }
+}
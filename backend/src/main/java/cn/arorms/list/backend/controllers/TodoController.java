@@ -1,15 +1,39 @@
 package cn.arorms.list.backend.controllers;
 
+import cn.arorms.list.backend.pojos.dtos.CursorPage;
+import cn.arorms.list.backend.pojos.dtos.ImportResult;
+import cn.arorms.list.backend.pojos.dtos.TodoBatchOperation;
+import cn.arorms.list.backend.pojos.dtos.TodoBatchResult;
+import cn.arorms.list.backend.pojos.dtos.TodoMoveRequest;
+import cn.arorms.list.backend.pojos.dtos.TodoSummary;
 import cn.arorms.list.backend.pojos.entities.Todo;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import cn.arorms.list.backend.services.TodoArchiveService;
 import cn.arorms.list.backend.services.TodoService;
+import cn.arorms.list.backend.services.TodoTransferService;
+import cn.arorms.list.backend.services.UserVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * TodoController
@@ -20,40 +44,131 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/todo")
 public class TodoController {
     private final TodoService todoService;
+    private final UserVersionService userVersionService;
+    private final TodoTransferService todoTransferService;
+    private final TodoArchiveService todoArchiveService;
 
     @Autowired
-    public TodoController(TodoService todoService) {
+    public TodoController(TodoService todoService, UserVersionService userVersionService,
+                          TodoTransferService todoTransferService, TodoArchiveService todoArchiveService) {
         this.todoService = todoService;
+        this.userVersionService = userVersionService;
+        this.todoTransferService = todoTransferService;
+        this.todoArchiveService = todoArchiveService;
     }
 
     // Get all todos with pagination
     @GetMapping()
-    public Page<Todo> getAllTodos(
+    public ResponseEntity<Page<TodoSummary>> getAllTodos(
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "20") int size,
             @RequestParam(value = "groupId", required = false) Long groupId,
-            @AuthenticationPrincipal Jwt jwt
+            @RequestParam(value = "order", defaultValue = "default") String order,
+            @AuthenticationPrincipal Jwt jwt,
+            WebRequest request
     ) {
         String username = jwt.getSubject();
+        String etag = userVersionService.etag(username, ResourceType.TODO);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         Pageable pageable = Pageable.ofSize(size).withPage(page);
-        return todoService.getAllByUsername(pageable, username, groupId);
+        boolean manualOrder = "manual".equals(order);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(todoService.getAllByUsername(pageable, username, groupId, manualOrder));
+    }
+
+    // Get todos with keyset pagination, pass back nextCursor to continue
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<TodoSummary>> scrollTodos(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "groupId", required = false) Long groupId,
+            @AuthenticationPrincipal Jwt jwt,
+            WebRequest request
+    ) {
+        String username = jwt.getSubject();
+        String etag = userVersionService.etag(username, ResourceType.TODO);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(todoService.getSliceByUsername(username, groupId, cursor, size));
+    }
+
+    // Search title and description, best matches first, pass back nextCursor to continue
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<TodoSummary>> searchTodos(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "groupId", required = false) Long groupId,
+            @AuthenticationPrincipal Jwt jwt,
+            WebRequest request
+    ) {
+        String username = jwt.getSubject();
+        String etag = userVersionService.etag(username, ResourceType.TODO);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(todoService.search(username, groupId, query, cursor, size));
     }
 
     @GetMapping("/deadline")
-    public Page<Todo> getAllTodosByDeadline(
+    public ResponseEntity<Page<TodoSummary>> getAllTodosByDeadline(
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "20") int size,
-            @AuthenticationPrincipal Jwt jwt
+            @RequestParam(value = "days", required = false) Integer days,
+            @AuthenticationPrincipal Jwt jwt,
+            WebRequest request
     ) {
         String username = jwt.getSubject();
         Pageable pageable = Pageable.ofSize(size).withPage(page);
-        return todoService.getAllByDeadline(pageable, username);
+        // The upcoming window moves with the clock, so it cannot be validated by version
+        if (days != null) {
+            return ResponseEntity.ok(todoService.getUpcomingByDeadline(pageable, username, days));
+        }
+        String etag = userVersionService.etag(username, ResourceType.TODO);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(todoService.getAllByDeadline(pageable, username));
+    }
+
+    // Completed todos moved out of the default listings, most recently completed first
+    @GetMapping("/archive")
+    public ResponseEntity<Page<TodoSummary>> getArchivedTodos(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @AuthenticationPrincipal Jwt jwt,
+            WebRequest request
+    ) {
+        String username = jwt.getSubject();
+        String etag = userVersionService.etag(username, ResourceType.TODO);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(todoArchiveService.getArchive(Pageable.ofSize(size).withPage(page), username));
     }
 
     // Get an entity detail by ID
     @GetMapping("/{id}")
-    public Todo getTodoById(@PathVariable Long id) {
-        return todoService.getTodoById(id);
+    public Todo getTodoById(@AuthenticationPrincipal Jwt jwt, @PathVariable Long id) {
+        String username = jwt.getSubject();
+        return todoService.getTodoById(username, id);
     }
 
     // Add a new entity
@@ -63,13 +178,89 @@ public class TodoController {
         return ResponseEntity.ok(todoService.addTodo(username, todo));
     }
 
-    // Toggle completion status of an entity
+    // Create, update, complete or delete many entities in one transaction
+    @PostMapping("/batch")
+    public ResponseEntity<List<TodoBatchResult>> batchTodos(@AuthenticationPrincipal Jwt jwt,
+                                                            @RequestBody List<TodoBatchOperation> operations) {
+        String username = jwt.getSubject();
+        return ResponseEntity.ok(todoService.applyBatch(username, operations));
+    }
+
+    // Download every todo as NDJSON (with group lines) or CSV, written while rows are read
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTodos(@AuthenticationPrincipal Jwt jwt,
+                                                             @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        String username = jwt.getSubject();
+        boolean csv = "csv".equals(format);
+        if (!csv && !"ndjson".equals(format)) {
+            throw new IllegalArgumentException("Format must be ndjson or csv.");
+        }
+        if (!todoTransferService.tryStartExport()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "10").build();
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                if (csv) {
+                    todoTransferService.exportCsv(username, out);
+                } else {
+                    todoTransferService.exportNdjson(username, out);
+                }
+            } finally {
+                todoTransferService.finishExport();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("todos." + format).build().toString())
+                .body(body);
+    }
+
+    // Import the NDJSON of an export, read line by line and saved in chunks
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResult> importNdjson(@AuthenticationPrincipal Jwt jwt, InputStream body) throws IOException {
+        return ResponseEntity.ok(todoTransferService.importNdjson(jwt.getSubject(), body));
+    }
+
+    // Import a CSV with a header row, title is required, group, description, completed, createdAt and deadline are optional
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResult> importCsv(@AuthenticationPrincipal Jwt jwt, InputStream body) throws IOException {
+        return ResponseEntity.ok(todoTransferService.importCsv(jwt.getSubject(), body));
+    }
+
+    // Toggle completion status of an entity, with occurrence only that occurrence of the series id
     @PutMapping("/toggleComplete/{id}")
-    public ResponseEntity<Todo> toggleCompleteTodo(@AuthenticationPrincipal Jwt jwt, @PathVariable Long id) {
+    public ResponseEntity<Todo> toggleCompleteTodo(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long id,
+            @RequestParam(value = "occurrence", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrence
+    ) {
         String username = jwt.getSubject();
+        if (occurrence != null) {
+            return ResponseEntity.ok(todoService.toggleOccurrence(username, id, occurrence));
+        }
         return ResponseEntity.ok(todoService.toggleCompleted(username, id));
     }
 
+    // Modify one occurrence of a series, the other occurrences keep following the series
+    @PutMapping("/{id}/occurrence")
+    public ResponseEntity<Todo> updateOccurrence(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long id,
+            @RequestParam(value = "date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+            @RequestBody Todo todo
+    ) {
+        String username = jwt.getSubject();
+        return ResponseEntity.ok(todoService.updateOccurrence(username, id, date, todo));
+    }
+
+
+    // Move an entity inside its group's manual order
+    @PutMapping("/move")
+    public ResponseEntity<Todo> moveTodo(@AuthenticationPrincipal Jwt jwt, @RequestBody TodoMoveRequest request) {
+        String username = jwt.getSubject();
+        return ResponseEntity.ok(todoService.moveTodo(username, request));
+    }
 
     // Modify
     @PutMapping()
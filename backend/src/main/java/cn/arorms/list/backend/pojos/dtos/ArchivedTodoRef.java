@@ -0,0 +1,10 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+/**
+ * Id and owner of one todo moved to the archive, returned by the archiving statement.
+ */
+public interface ArchivedTodoRef {
+    Long getId();
+
+    String getCreatedBy();
+}
@@ -0,0 +1,26 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Committed change of one user's todos or groups, published after every mutation.
+ * resync means the changed ids are unknown and the client should reload that type.
+ * remote events were committed on another node and arrived through ClusterEventBus.
+ */
+@Getter @AllArgsConstructor
+public class ChangeEvent {
+    @JsonIgnore
+    private String username;
+    private ResourceType type;
+    private long version;
+    private List<Long> upserted;
+    private List<Long> deleted;
+    private boolean resync;
+    @JsonIgnore
+    private boolean remote;
+}
@@ -0,0 +1,10 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+/**
+ * Id and current change_seq of one todo, read back after a write stamped it.
+ */
+public interface ChangeSeqRef {
+    Long getId();
+
+    Long getChangeSeq();
+}
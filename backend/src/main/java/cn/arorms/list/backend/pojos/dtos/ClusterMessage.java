@@ -0,0 +1,31 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * NOTIFY payload between backend nodes, one committed ChangeEvent or a heartbeat.
+ * seq counts the change messages of the sending node, a heartbeat repeats the last one sent.
+ * A reminder message carries a reminder fired on the sending node and is not counted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class ClusterMessage {
+    private String node;
+    private long seq;
+    private boolean heartbeat;
+    private String username;
+    private ResourceType type;
+    private long version;
+    private List<Long> upserted;
+    private List<Long> deleted;
+    private boolean resync;
+    private Reminder reminder;
+}
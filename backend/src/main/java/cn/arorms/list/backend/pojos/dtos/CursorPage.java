@@ -0,0 +1,18 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing.
+ * nextCursor is null when there is nothing after this slice.
+ */
+@Getter @AllArgsConstructor
+public class CursorPage<T> implements Serializable {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+}
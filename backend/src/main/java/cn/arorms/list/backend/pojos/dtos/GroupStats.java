@@ -0,0 +1,19 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * Todo counts of one group, groupId is null for todos outside any group.
+ * Groups without todos are left out.
+ */
+@Getter @AllArgsConstructor
+public class GroupStats implements Serializable {
+    private Long groupId;
+    private Long total;
+    private Long completed;
+    private Long overdue;
+    private Long dueSoon;
+}
@@ -0,0 +1,17 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of POST /api/todo/import, errors lists the first rejected lines.
+ */
+@Getter @AllArgsConstructor
+public class ImportResult {
+    private long imported;
+    private long groupsCreated;
+    private long rejected;
+    private List<String> errors;
+}
@@ -0,0 +1,12 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Series and original start of an occurrence replaced by an exception row.
+ */
+public interface OccurrenceRef {
+    Long getRecurrenceParentId();
+
+    LocalDateTime getOccurrenceDate();
+}
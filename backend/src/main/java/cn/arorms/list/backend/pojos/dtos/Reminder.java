@@ -0,0 +1,20 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deadline reminder of one todo, the payload handed to every ReminderSender.
+ * Also carried by ClusterMessage to the nodes holding the user's change streams.
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class Reminder {
+    private Long todoId;
+    private String username;
+    private String title;
+    private LocalDateTime deadline;
+}
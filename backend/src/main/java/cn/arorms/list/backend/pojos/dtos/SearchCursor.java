@@ -0,0 +1,36 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the (rank DESC, id DESC) ordering of search results.
+ * fallback records that the first page came from the trigram match, later pages stay on it.
+ */
+@Getter @AllArgsConstructor
+public class SearchCursor {
+    private boolean fallback;
+    private float rank;
+    private Long id;
+
+    public String encode() {
+        String raw = fallback + "|" + rank + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new SearchCursor(Boolean.parseBoolean(parts[0]), Float.parseFloat(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/sync, the offline queue of a client and the token of its last sync.
+ */
+@Data
+public class SyncPushRequest {
+    private Long since;
+    private List<TodoBatchOperation> operations;
+}
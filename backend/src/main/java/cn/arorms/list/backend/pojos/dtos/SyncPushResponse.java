@@ -0,0 +1,12 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter @AllArgsConstructor
+public class SyncPushResponse {
+    private List<TodoBatchResult> results;
+    private SyncResponse changes;
+}
@@ -0,0 +1,23 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import cn.arorms.list.backend.pojos.entities.Group;
+import cn.arorms.list.backend.pojos.entities.Todo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Response of GET /api/sync.
+ * Pass token as since on the next call. reset means the rows are a full snapshot and local state
+ * missing from it must be dropped.
+ */
+@Getter @AllArgsConstructor
+public class SyncResponse {
+    private long token;
+    private boolean reset;
+    private List<Todo> todos;
+    private List<Group> groups;
+    private List<Long> deletedTodoIds;
+    private List<Long> deletedGroupIds;
+}
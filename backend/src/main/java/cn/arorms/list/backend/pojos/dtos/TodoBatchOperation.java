@@ -0,0 +1,20 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import cn.arorms.list.backend.pojos.entities.Todo;
+import cn.arorms.list.backend.pojos.enums.BatchOperationType;
+import lombok.Data;
+
+/**
+ * One entry of POST /api/todo/batch.
+ * CREATE and UPDATE carry the todo, COMPLETE sets completed (true when omitted), DELETE only needs the id.
+ * changeSeq, when present, is the version the client last saw; the operation is rejected as CONFLICT
+ * if the todo has been written since.
+ */
+@Data
+public class TodoBatchOperation {
+    private BatchOperationType type;
+    private Long id;
+    private Todo todo;
+    private Boolean completed;
+    private Long changeSeq;
+}
@@ -0,0 +1,19 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import cn.arorms.list.backend.pojos.enums.BatchResultStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data @AllArgsConstructor
+public class TodoBatchResult {
+    private int index;
+    private Long id;
+    private BatchResultStatus status;
+    private String message;
+    // change_seq after the operation, clients send it with their next edit of the todo
+    private Long changeSeq;
+
+    public TodoBatchResult(int index, Long id, BatchResultStatus status, String message) {
+        this(index, id, status, message, null);
+    }
+}
@@ -0,0 +1,42 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the (isCompleted, createdAt, id) ordering of the todo list.
+ * Handed to clients as an opaque url-safe token.
+ */
+@Getter @AllArgsConstructor
+public class TodoCursor {
+    private boolean completed;
+    private LocalDateTime createdAt;
+    private Long id;
+
+    public static TodoCursor of(TodoSummary todo) {
+        return new TodoCursor(Boolean.TRUE.equals(todo.getIsCompleted()), todo.getCreatedAt(), todo.getId());
+    }
+
+    public String encode() {
+        String raw = completed + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new TodoCursor(Boolean.parseBoolean(parts[0]), LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
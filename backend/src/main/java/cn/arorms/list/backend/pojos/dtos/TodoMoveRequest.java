@@ -0,0 +1,14 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.Data;
+
+/**
+ * Move a todo between two neighbours of the same group in manual order.
+ * previousId is the todo that ends up above, nextId the one below; either may be null at an end of the list.
+ */
+@Data
+public class TodoMoveRequest {
+    private Long id;
+    private Long previousId;
+    private Long nextId;
+}
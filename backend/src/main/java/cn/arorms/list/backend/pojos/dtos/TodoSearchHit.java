@@ -0,0 +1,10 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+/**
+ * Id and relevance of one search match, the rows themselves are loaded as TodoSummary.
+ */
+public interface TodoSearchHit {
+    Long getId();
+
+    Float getRank();
+}
@@ -0,0 +1,21 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response of GET /api/stats, overdue and dueSoon are relative to asOf.
+ */
+@Getter @AllArgsConstructor
+public class TodoStats implements Serializable {
+    private LocalDateTime asOf;
+    private long total;
+    private long completed;
+    private long overdue;
+    private long dueSoon;
+    private List<GroupStats> groups;
+}
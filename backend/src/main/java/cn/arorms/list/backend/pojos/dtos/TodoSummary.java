@@ -0,0 +1,58 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Todo as shown in list pages: no description, owner or proxy state, and only id and name of its group.
+ * Built directly by the listing queries, GET /api/todo/{id} returns the full entity.
+ */
+@Getter @AllArgsConstructor
+public class TodoSummary implements Serializable {
+    private Long id;
+    private String title;
+    private Boolean isCompleted;
+    private LocalDateTime createdAt;
+    private LocalDateTime deadline;
+    private Long orderKey;
+    private GroupSummary group;
+    // Recurrence fields are left out of the payload unless set, plain todos serialize as before
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String recurrenceRule;
+    // Set on exception rows and on occurrences expanded from a series, whose id is null
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long recurrenceParentId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime occurrenceDate;
+
+    // Constructor expression target of the JPQL listings
+    public TodoSummary(Long id, String title, Boolean isCompleted, LocalDateTime createdAt,
+                       LocalDateTime deadline, Long orderKey, Long groupId, String groupName,
+                       String recurrenceRule, Long recurrenceParentId, LocalDateTime occurrenceDate) {
+        this(id, title, isCompleted, createdAt, deadline, orderKey,
+                groupId == null ? null : new GroupSummary(groupId, groupName),
+                recurrenceRule, recurrenceParentId, occurrenceDate);
+    }
+
+    // Rows without recurrence, such as archived todos
+    public TodoSummary(Long id, String title, Boolean isCompleted, LocalDateTime createdAt,
+                       LocalDateTime deadline, Long orderKey, Long groupId, String groupName) {
+        this(id, title, isCompleted, createdAt, deadline, orderKey, groupId, groupName, null, null, null);
+    }
+
+    // One occurrence of a series inside an expanded window, completing it creates an exception row
+    public static TodoSummary occurrence(TodoSummary series, LocalDateTime occurrenceDate) {
+        return new TodoSummary(null, series.title, false, series.createdAt, occurrenceDate, series.orderKey,
+                series.group, null, series.id, occurrenceDate);
+    }
+
+    @Getter @AllArgsConstructor
+    public static class GroupSummary implements Serializable {
+        private Long id;
+        private String name;
+    }
+}
@@ -0,0 +1,30 @@
+package cn.arorms.list.backend.pojos.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of an NDJSON export or import.
+ * type "group" carries id, name and description; type "todo" carries the todo fields, groupId refers to
+ * the id of a group line of the same file.
+ */
+@Data @NoArgsConstructor @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransferRecord {
+    public static final String GROUP = "group";
+    public static final String TODO = "todo";
+
+    private String type;
+    private Long id;
+    private Long groupId;
+    private String name;
+    private String title;
+    private String description;
+    private Boolean completed;
+    private LocalDateTime createdAt;
+    private LocalDateTime deadline;
+}
@@ -0,0 +1,46 @@
+package cn.arorms.list.backend.pojos.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ArchivedTodo Entity
+ * Completed todo moved out of todos by TodoArchiveService, only read through GET /api/todo/archive.
+ * Written by native statements in TodoRepository.
+ */
+@Entity @Table(name = "todos_archive")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ArchivedTodo {
+    @Id
+    private Long id;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    // Plain id, the group may be deleted while the todo is archived
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(name = "title", nullable = false, length = 255)
+    private String title;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "deadline")
+    private LocalDateTime deadline;
+
+    @Column(name = "order_key", nullable = false)
+    private Long orderKey;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
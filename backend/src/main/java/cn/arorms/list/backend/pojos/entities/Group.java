@@ -3,22 +3,38 @@ package cn.arorms.list.backend.pojos.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
+
+import java.io.Serializable;
 
 @Entity @Table(name = "groups")
+@DynamicUpdate
 @Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
-public class Group {
+public class Group implements Serializable {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(name = "order_index")
+    // Position in the user's list (0 = bottom), derived from orderKey when listing
+    @Transient
     private int orderIndex;
 
+    // Sparse ordering key, larger keys are listed first
+    @Column(name = "order_key", nullable = false)
+    private long orderKey;
+
     private String description;
 
     // Username from JWT subject
     @Column(name = "created_by")
     private String createdBy;
+
+    // Writing transaction, stamped by a database trigger and read back after every write
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
 }
@@ -0,0 +1,24 @@
+package cn.arorms.list.backend.pojos.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * SchedulerLease Entity
+ * Held by one node until expires_at, renewed by LeaderLease.
+ */
+@Entity @Table(name = "scheduler_leases")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class SchedulerLease {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "owner", nullable = false, length = 128)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
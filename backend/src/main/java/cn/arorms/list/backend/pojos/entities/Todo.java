@@ -1,9 +1,12 @@
 package cn.arorms.list.backend.pojos.entities;
 
+import cn.arorms.list.backend.utils.OrderKeys;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
@@ -11,9 +14,12 @@ import java.time.LocalDateTime;
  * Todo Entity
  */
 @Entity @Table(name = "todos")
+@DynamicUpdate
 @Getter @Setter @Builder @NoArgsConstructor @AllArgsConstructor
 public class Todo {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so inserts can be batched
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
 
 //    @ManyToOne(fetch = FetchType.LAZY)
@@ -36,12 +42,57 @@ public class Todo {
     @Column(name = "description")
     private String description;
 
-    @Column(name = "is_completed")
+    @Column(name = "is_completed", nullable = false)
     private Boolean isCompleted = false;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     @Column(name = "deadline")
     private LocalDateTime deadline;
+
+    // Manual position inside a group, smaller keys are listed first
+    @Column(name = "order_key", nullable = false)
+    private Long orderKey;
+
+    // Writing transaction, stamped by a database trigger, clients send it back to detect conflicting edits
+    // Not @Generated, that would disable insert batching, TodoService reads it back after its writes
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
+    // Set by a database trigger when the todo is completed, TodoArchiveService archives by it
+    @Column(name = "completed_at", insertable = false, updatable = false)
+    private LocalDateTime completedAt;
+
+    // RRULE of a series, checked and normalized by RecurrenceRule, the deadline is the first occurrence
+    @Column(name = "recurrence_rule")
+    private String recurrenceRule;
+
+    // Exception rows: the series this row replaces one occurrence of, and the original start of that occurrence
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "recurrence_parent_id")
+    private Long recurrenceParentId;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "occurrence_date")
+    private LocalDateTime occurrenceDate;
+
+    // Set when the deadline reminder fired, written only by ReminderScheduler
+    @JsonIgnore
+    @Column(name = "reminded_at", insertable = false, updatable = false)
+    private LocalDateTime remindedAt;
+
+    // Builder and request bodies can leave these null, the listing columns are NOT NULL
+    @PrePersist
+    void assignDefaults() {
+        if (orderKey == null) {
+            orderKey = OrderKeys.forNewTodo();
+        }
+        if (isCompleted == null) {
+            isCompleted = false;
+        }
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package cn.arorms.list.backend.pojos.entities;
+
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone Entity
+ * Written by a delete trigger on todos and groups, read by delta sync.
+ */
+@Entity @Table(name = "tombstones")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class Tombstone {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resource_type", nullable = false, length = 16)
+    private ResourceType resourceType;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
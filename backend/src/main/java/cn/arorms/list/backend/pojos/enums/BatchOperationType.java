@@ -0,0 +1,8 @@
+package cn.arorms.list.backend.pojos.enums;
+
+public enum BatchOperationType {
+    CREATE,
+    UPDATE,
+    COMPLETE,
+    DELETE
+}
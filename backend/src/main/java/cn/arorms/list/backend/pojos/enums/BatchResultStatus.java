@@ -0,0 +1,8 @@
+package cn.arorms.list.backend.pojos.enums;
+
+public enum BatchResultStatus {
+    OK,
+    NOT_FOUND,
+    INVALID,
+    CONFLICT
+}
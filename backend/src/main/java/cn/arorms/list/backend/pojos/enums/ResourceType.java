@@ -0,0 +1,6 @@
+package cn.arorms.list.backend.pojos.enums;
+
+public enum ResourceType {
+    TODO,
+    GROUP
+}
@@ -0,0 +1,17 @@
+package cn.arorms.list.backend.repositories;
+
+import cn.arorms.list.backend.pojos.dtos.TodoSummary;
+import cn.arorms.list.backend.pojos.entities.ArchivedTodo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ArchivedTodoRepository extends JpaRepository<ArchivedTodo, Long> {
+    // Same summary shape as the hot listings, served by idx_todos_archive_owner_completed
+    @Query(value = "SELECT new cn.arorms.list.backend.pojos.dtos.TodoSummary(" +
+            "a.id, a.title, true, a.createdAt, a.deadline, a.orderKey, g.id, g.name) " +
+            "FROM ArchivedTodo a LEFT JOIN Group g ON g.id = a.groupId WHERE a.createdBy = :username",
+            countQuery = "SELECT COUNT(a) FROM ArchivedTodo a WHERE a.createdBy = :username")
+    Page<TodoSummary> findSummariesByCreatedBy(String username, Pageable sortedPageable);
+}
@@ -2,26 +2,34 @@ package cn.arorms.list.backend.repositories;
 
 import cn.arorms.list.backend.pojos.entities.Group;
 import cn.arorms.list.backend.pojos.entities.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
     List<Group> findByCreatedBy(String username, Sort sort);
 
-    @Modifying
-    @Query("UPDATE Group g SET g.orderIndex = g.orderIndex + 1 " +
-            "WHERE g.orderIndex >= :start AND g.orderIndex <= :end AND g.createdBy = :username")
-    void shiftForward(int start, int end, String username);
+    Optional<Group> findByIdAndCreatedBy(Long id, String username);
 
-    @Modifying
-    @Query("UPDATE Group g SET g.orderIndex = g.orderIndex - 1 " +
-            "WHERE g.orderIndex >= :start AND g.orderIndex <= :end AND g.createdBy = :username")
-    void shiftBackward(int start, int end, String username);
+    @Query("SELECT MAX(g.orderKey) FROM Group g WHERE g.createdBy = :username")
+    Long findMaxOrderKey(String username);
 
-    int countByCreatedBy(String username);
+    // Returns the change_seq stamped by the write, empty when no owned group matched
+    @Transactional
+    @Query(value = "UPDATE groups SET name = :name, description = :description " +
+            "WHERE id = :id AND created_by = :username RETURNING change_seq", nativeQuery = true)
+    Optional<Long> updateByIdAndCreatedBy(Long id, String username, String name, String description);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM Group g WHERE g.createdBy = :username ORDER BY g.orderKey ASC, g.id ASC")
+    List<Group> findForRebalance(String username);
+
+    List<Group> findByCreatedByAndChangeSeqGreaterThanEqual(String username, long since);
 }
@@ -0,0 +1,24 @@
+package cn.arorms.list.backend.repositories;
+
+import cn.arorms.list.backend.pojos.entities.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // Take or renew the lease, 1 when the caller holds it afterwards; expiry uses the database clock
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, expires_at) " +
+            "VALUES (:name, :owner, now() + make_interval(secs => :ttlSeconds)) " +
+            "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+            "WHERE scheduler_leases.owner = EXCLUDED.owner OR scheduler_leases.expires_at < now()", nativeQuery = true)
+    int tryAcquire(String name, String owner, long ttlSeconds);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM scheduler_leases WHERE name = :name AND owner = :owner", nativeQuery = true)
+    int release(String name, String owner);
+}
@@ -1,19 +1,254 @@
 package cn.arorms.list.backend.repositories;
 
+import cn.arorms.list.backend.pojos.dtos.ArchivedTodoRef;
+import cn.arorms.list.backend.pojos.dtos.ChangeSeqRef;
+import cn.arorms.list.backend.pojos.dtos.GroupStats;
+import cn.arorms.list.backend.pojos.dtos.OccurrenceRef;
+import cn.arorms.list.backend.pojos.dtos.Reminder;
+import cn.arorms.list.backend.pojos.dtos.TodoSearchHit;
+import cn.arorms.list.backend.pojos.dtos.TodoSummary;
 import cn.arorms.list.backend.pojos.entities.Todo;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TodoRepository extends JpaRepository<Todo, Long> {
-    Page<Todo> findByCreatedBy(String username, Pageable sortedPageable);
-    Page<Todo> findByCreatedByAndGroup_Id(String username, Long groupId, Pageable sortedPageable);
+    // Listings select summaries with the group id and name joined in the same statement
+    String SELECT_SUMMARY = "SELECT new cn.arorms.list.backend.pojos.dtos.TodoSummary(" +
+            "t.id, t.title, t.isCompleted, t.createdAt, t.deadline, t.orderKey, g.id, g.name, " +
+            "t.recurrenceRule, t.recurrenceParentId, t.occurrenceDate) " +
+            "FROM Todo t LEFT JOIN t.group g ";
+
+    @Query(value = SELECT_SUMMARY + "WHERE t.createdBy = :username",
+            countQuery = "SELECT COUNT(t) FROM Todo t WHERE t.createdBy = :username")
+    Page<TodoSummary> findSummariesByCreatedBy(String username, Pageable sortedPageable);
+
+    @Query(value = SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.group.id = :groupId",
+            countQuery = "SELECT COUNT(t) FROM Todo t WHERE t.createdBy = :username AND t.group.id = :groupId")
+    Page<TodoSummary> findSummariesByCreatedByAndGroupId(String username, Long groupId, Pageable sortedPageable);
+
+    // Keyset pagination over (isCompleted ASC, createdAt DESC, id DESC), no count query
+    @Query(SELECT_SUMMARY + "WHERE t.createdBy = :username " +
+            "ORDER BY t.isCompleted ASC, t.createdAt DESC, t.id DESC")
+    List<TodoSummary> findFirstSlice(String username, Limit limit);
+
+    // Rows of one completion state past the cursor, the row value comparison is a single range seek on
+    // idx_todos_owner_list; TodoService continues with the completed head once the open rows run out
+    @Query(SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.isCompleted = :completed " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TodoSummary> findSliceAfter(String username, boolean completed, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.isCompleted = :completed " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TodoSummary> findSliceByCompleted(String username, boolean completed, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.group.id = :groupId " +
+            "ORDER BY t.isCompleted ASC, t.createdAt DESC, t.id DESC")
+    List<TodoSummary> findFirstSliceInGroup(String username, Long groupId, Limit limit);
+
+    // Same seek on idx_todos_owner_group_list
+    @Query(SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.group.id = :groupId AND t.isCompleted = :completed " +
+            "AND (t.createdAt, t.id) < (:createdAt, :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TodoSummary> findSliceInGroupAfter(String username, Long groupId, boolean completed,
+                                            LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.group.id = :groupId AND t.isCompleted = :completed " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TodoSummary> findSliceInGroupByCompleted(String username, Long groupId, boolean completed, Limit limit);
+
+    // Deadline view, served by idx_todos_owner_deadline (partial on deadline IS NOT NULL)
+    @Query(value = SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.deadline IS NOT NULL",
+            countQuery = "SELECT COUNT(t) FROM Todo t WHERE t.createdBy = :username AND t.deadline IS NOT NULL")
+    Page<TodoSummary> findSummariesWithDeadline(String username, Pageable sortedPageable);
+
+    // Series are left out, their occurrences inside the window are expanded by TodoService
+    @Query(value = SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.deadline BETWEEN :from AND :to " +
+            "AND t.recurrenceRule IS NULL",
+            countQuery = "SELECT COUNT(t) FROM Todo t WHERE t.createdBy = :username AND t.deadline BETWEEN :from AND :to " +
+                    "AND t.recurrenceRule IS NULL")
+    Page<TodoSummary> findSummariesWithDeadlineBetween(String username, LocalDateTime from, LocalDateTime to,
+                                                       Pageable sortedPageable);
+
+    // Open series starting before the end of a window, served by idx_todos_owner_series
+    @Query(SELECT_SUMMARY + "WHERE t.createdBy = :username AND t.recurrenceRule IS NOT NULL " +
+            "AND t.deadline <= :to AND (t.isCompleted IS NULL OR t.isCompleted = false)")
+    List<TodoSummary> findOpenSeries(String username, LocalDateTime to);
+
+    // Occurrences of the given series already replaced by exception rows, served by idx_todos_occurrence
+    @Query("SELECT t.recurrenceParentId AS recurrenceParentId, t.occurrenceDate AS occurrenceDate FROM Todo t " +
+            "WHERE t.recurrenceParentId IN :seriesIds AND t.occurrenceDate BETWEEN :from AND :to")
+    List<OccurrenceRef> findOccurrencesBetween(Collection<Long> seriesIds, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT t FROM Todo t WHERE t.recurrenceParentId = :seriesId AND t.occurrenceDate = :occurrenceDate " +
+            "AND t.createdBy = :username")
+    Optional<Todo> findOccurrence(Long seriesId, LocalDateTime occurrenceDate, String username);
 
-    Boolean existsByIdAndCreatedBy(Long id, String username);
     Optional<Todo> findByIdAndCreatedBy(Long id, String username);
+    List<Todo> findAllByIdInAndCreatedBy(Collection<Long> ids, String username);
+
+    // Manual ordering inside a group
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Todo t WHERE t.createdBy = :username AND t.group.id = :groupId " +
+            "ORDER BY t.orderKey ASC, t.id ASC")
+    List<Todo> findForRebalance(String username, Long groupId);
+
+    // Owner-scoped single statement mutations, no read before write
+    @Transactional
+    @Query(value = "UPDATE todos SET is_completed = NOT COALESCE(is_completed, false) " +
+            "WHERE id = :id AND created_by = :username RETURNING *", nativeQuery = true)
+    Optional<Todo> toggleCompleted(Long id, String username);
+
+    // Archived todos come back uncompleted with their id, the tombstone of the archiving is dropped
+    // so delta sync sees the todo as changed instead of both changed and deleted
+    // A series brings back its archived exception rows, still completed; an exception row only comes back
+    // on its own while its series is in todos, the series restores it otherwise
+    @Transactional
+    @Query(value = "WITH restored AS (DELETE FROM todos_archive a WHERE a.created_by = :username AND (" +
+            "(a.id = :id AND (a.recurrence_parent_id IS NULL " +
+            "OR EXISTS (SELECT 1 FROM todos p WHERE p.id = a.recurrence_parent_id))) " +
+            "OR (a.recurrence_parent_id = :id " +
+            "AND EXISTS (SELECT 1 FROM todos_archive s WHERE s.id = :id AND s.recurrence_rule IS NOT NULL))) " +
+            "RETURNING id, created_by, group_id, title, description, created_at, deadline, order_key, completed_at, " +
+            "recurrence_rule, recurrence_parent_id, occurrence_date), " +
+            "cleared AS (DELETE FROM tombstones WHERE resource_type = 'TODO' AND resource_id IN (SELECT id FROM restored)) " +
+            "INSERT INTO todos (id, created_by, group_id, title, description, is_completed, completed_at, created_at, " +
+            "deadline, order_key, recurrence_rule, recurrence_parent_id, occurrence_date) " +
+            "SELECT id, created_by, group_id, title, description, id <> :id, CASE WHEN id <> :id THEN completed_at END, " +
+            "created_at, deadline, order_key, recurrence_rule, recurrence_parent_id, occurrence_date " +
+            "FROM restored " +
+            "RETURNING *", nativeQuery = true)
+    List<Todo> restoreFromArchive(Long id, String username);
+
+    // Moves one batch of completed todos to todos_archive, rows locked by running requests are left for the next batch
+    // Exception rows of occurrences still ahead stay, without them the occurrence would be expanded again,
+    // and a series waits until none of its exception rows is left in todos, ON DELETE SET NULL would orphan them
+    @Transactional
+    @Query(value = "WITH moved AS (DELETE FROM todos WHERE id IN (" +
+            "SELECT t.id FROM todos t WHERE t.is_completed IS TRUE AND t.completed_at < :cutoff " +
+            "AND (t.occurrence_date IS NULL OR t.occurrence_date < now()) " +
+            "AND (t.recurrence_rule IS NULL OR NOT EXISTS (SELECT 1 FROM todos e WHERE e.recurrence_parent_id = t.id)) " +
+            "ORDER BY t.completed_at LIMIT :limit FOR UPDATE OF t SKIP LOCKED) " +
+            "RETURNING id, created_by, group_id, title, description, created_at, deadline, order_key, completed_at, " +
+            "recurrence_rule, recurrence_parent_id, occurrence_date) " +
+            "INSERT INTO todos_archive (id, created_by, group_id, title, description, created_at, deadline, order_key, " +
+            "completed_at, archived_at, recurrence_rule, recurrence_parent_id, occurrence_date) " +
+            "SELECT id, created_by, group_id, title, description, created_at, deadline, order_key, completed_at, now(), " +
+            "recurrence_rule, recurrence_parent_id, occurrence_date " +
+            "FROM moved RETURNING id AS \"id\", created_by AS \"createdBy\"", nativeQuery = true)
+    List<ArchivedTodoRef> archiveCompletedBefore(LocalDateTime cutoff, int limit);
+
+    // Returns the change_seq stamped by the write, empty when no owned todo matched
+    // Exception rows never get a rule, todos_recurrence_check would reject the statement
+    @Transactional
+    @Query(value = "UPDATE todos SET title = :title, description = :description, is_completed = :completed, " +
+            "deadline = :deadline, group_id = :groupId, recurrence_rule = :recurrenceRule " +
+            "WHERE id = :id AND created_by = :username " +
+            "AND (CAST(:recurrenceRule AS VARCHAR) IS NULL OR recurrence_parent_id IS NULL) " +
+            "RETURNING change_seq", nativeQuery = true)
+    Optional<Long> updateByIdAndCreatedBy(Long id, String username, String title, String description,
+                                          boolean completed, LocalDateTime deadline, Long groupId, String recurrenceRule);
+
+    // change_seq is stamped by a trigger, read back after writes that went through the persistence context
+    @Query("SELECT t.id AS id, t.changeSeq AS changeSeq FROM Todo t WHERE t.id IN :ids")
+    List<ChangeSeqRef> findChangeSeqsByIdIn(Collection<Long> ids);
+
+    // Marks the transaction as a background write, V11 keeps the change_seq of rows whose order_key alone changes
+    @Query(value = "SELECT set_config('arlist.background_write', 'on', true)", nativeQuery = true)
+    String markBackgroundWrite();
+
+    // Deleting a series takes its exception rows along, returns every deleted id
+    @Transactional
+    @Query(value = "DELETE FROM todos WHERE (id = :id OR recurrence_parent_id = :id) AND created_by = :username " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> deleteByIdAndCreatedBy(Long id, String username);
+
+    // Exception rows of series deleted in a batch, rows already deleted by the batch itself are excluded
+    @Transactional
+    @Query(value = "DELETE FROM todos WHERE recurrence_parent_id IN (:seriesIds) AND id NOT IN (:excludedIds) " +
+            "AND created_by = :username RETURNING id", nativeQuery = true)
+    List<Long> deleteOccurrencesOf(Collection<Long> seriesIds, Collection<Long> excludedIds, String username);
+
+    // Delta sync, the group is fetched so the entities serialize outside the transaction
+    @Query("SELECT t FROM Todo t LEFT JOIN FETCH t.group WHERE t.createdBy = :username AND t.changeSeq >= :since")
+    List<Todo> findChangedSince(String username, long since);
+
+    // Ranked full-text search, keyset over (rank DESC, id DESC), served by idx_todos_owner_search
+    String SEARCH_HITS = "SELECT t.id AS id, ts_rank(t.search_vector, to_tsquery('simple', :query)) AS rank FROM todos t " +
+            "WHERE t.created_by = :username AND (CAST(:groupId AS BIGINT) IS NULL OR t.group_id = :groupId) " +
+            "AND t.search_vector @@ to_tsquery('simple', :query)";
+
+    @Query(value = SEARCH_HITS + " ORDER BY rank DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<TodoSearchHit> searchFirst(String username, Long groupId, String query, int limit);
+
+    @Query(value = "SELECT id, rank FROM (" + SEARCH_HITS + ") hits " +
+            "WHERE rank < :rank OR (rank = :rank AND id < :id) ORDER BY rank DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<TodoSearchHit> searchAfter(String username, Long groupId, String query, float rank, Long id, int limit);
+
+    // Substring match on the title ranked by trigram similarity, served by idx_todos_owner_title_trgm
+    String SIMILAR_HITS = "SELECT t.id AS id, similarity(t.title, :text) AS rank FROM todos t " +
+            "WHERE t.created_by = :username AND (CAST(:groupId AS BIGINT) IS NULL OR t.group_id = :groupId) " +
+            "AND t.title ILIKE :pattern";
+
+    @Query(value = SIMILAR_HITS + " ORDER BY rank DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<TodoSearchHit> searchSimilarFirst(String username, Long groupId, String text, String pattern, int limit);
+
+    @Query(value = "SELECT id, rank FROM (" + SIMILAR_HITS + ") hits " +
+            "WHERE rank < :rank OR (rank = :rank AND id < :id) ORDER BY rank DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<TodoSearchHit> searchSimilarAfter(String username, Long groupId, String text, String pattern,
+                                           float rank, Long id, int limit);
+
+    @Query(SELECT_SUMMARY + "WHERE t.id IN :ids")
+    List<TodoSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    // Per-group counts in one pass over the user's todos, t.group.id reads the foreign key without a join
+    @Query("SELECT new cn.arorms.list.backend.pojos.dtos.GroupStats(t.group.id, COUNT(t), " +
+            "COUNT(t) FILTER (WHERE t.isCompleted = true), " +
+            "COUNT(t) FILTER (WHERE (t.isCompleted IS NULL OR t.isCompleted = false) AND t.deadline < :now), " +
+            "COUNT(t) FILTER (WHERE (t.isCompleted IS NULL OR t.isCompleted = false) " +
+            "AND t.deadline >= :now AND t.deadline < :soon)) " +
+            "FROM Todo t WHERE t.createdBy = :username GROUP BY t.group.id")
+    List<GroupStats> countByGroup(String username, LocalDateTime now, LocalDateTime soon);
+
+    // Export cursor in manual order, rows arrive in fetch-size chunks instead of one result set in memory
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Todo t LEFT JOIN FETCH t.group WHERE t.createdBy = :username ORDER BY t.orderKey, t.id")
+    Stream<Todo> streamByCreatedBy(String username);
+
+    // Reminder window across all users, a range scan on idx_todos_reminder_due
+    String SELECT_REMINDER = "SELECT new cn.arorms.list.backend.pojos.dtos.Reminder(t.id, t.createdBy, t.title, t.deadline) " +
+            "FROM Todo t WHERE t.deadline >= :from AND t.deadline < :to AND t.remindedAt IS NULL " +
+            "AND (t.isCompleted IS NULL OR t.isCompleted = false) ";
+
+    @Query(SELECT_REMINDER + "ORDER BY t.deadline")
+    List<Reminder> findDueReminders(LocalDateTime from, LocalDateTime to, Limit limit);
+
+    @Query(SELECT_REMINDER + "AND t.id IN :ids")
+    List<Reminder> findDueRemindersByIdIn(Collection<Long> ids, LocalDateTime from, LocalDateTime to);
 
-    Page<Todo> findAllByDeadlineIsNotNull(Pageable pageable);
+    // Claims a reminder once, no-op when the todo was completed, rescheduled or already reminded meanwhile
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE todos SET reminded_at = now() WHERE id = :id AND deadline = :deadline " +
+            "AND reminded_at IS NULL AND is_completed IS NOT TRUE", nativeQuery = true)
+    int markReminded(Long id, LocalDateTime deadline);
 }
@@ -0,0 +1,33 @@
+package cn.arorms.list.backend.repositories;
+
+import cn.arorms.list.backend.pojos.entities.Tombstone;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    @Query("SELECT t.resourceId FROM Tombstone t " +
+            "WHERE t.createdBy = :username AND t.resourceType = :type AND t.changeSeq >= :since")
+    List<Long> findDeletedIdsSince(String username, ResourceType type, long since);
+
+    // Sync token, every transaction not yet visible to the current snapshot has an id >= this
+    @Query(value = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::BIGINT", nativeQuery = true)
+    long currentSyncToken();
+
+    @Query(value = "SELECT change_seq FROM sync_horizon WHERE id = 1", nativeQuery = true)
+    long findHorizon();
+
+    // Drop old tombstones and raise the horizon past them in one statement
+    @Transactional
+    @Modifying
+    @Query(value = "WITH purged AS (DELETE FROM tombstones WHERE deleted_at < :before RETURNING change_seq) " +
+            "UPDATE sync_horizon SET change_seq = GREATEST(change_seq, " +
+            "(SELECT COALESCE(MAX(change_seq) + 1, 0) FROM purged)) WHERE id = 1", nativeQuery = true)
+    int purgeBefore(LocalDateTime before);
+}
@@ -0,0 +1,316 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.ChangeEvent;
+import cn.arorms.list.backend.pojos.dtos.Reminder;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ChangeStreamService
+ * Per-user server-sent event streams fed by the ChangeEvents of UserVersionService.
+ * Publishers never wait on a client: deltas queue per subscriber, coalesced per type, and a slow
+ * client whose queue grows past max-pending-ids is told to resync instead.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@RegisterReflectionForBinding({ChangeEvent.class, Reminder.class})
+@Service
+public class ChangeStreamService {
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService flusher = Executors.newVirtualThreadPerTaskExecutor();
+    private final UserVersionService userVersionService;
+    private final int maxConnectionsPerUser;
+    private final int maxConnections;
+    private final int maxPendingIds;
+    private final long timeoutMillis;
+
+    public ChangeStreamService(UserVersionService userVersionService,
+                               @Value("${application.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                               @Value("${application.stream.max-connections:10000}") int maxConnections,
+                               @Value("${application.stream.max-pending-ids:500}") int maxPendingIds,
+                               @Value("${application.stream.timeout-ms:1800000}") long timeoutMillis,
+                               MeterRegistry meterRegistry) {
+        this.userVersionService = userVersionService;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxConnections = maxConnections;
+        this.maxPendingIds = maxPendingIds;
+        this.timeoutMillis = timeoutMillis;
+        Gauge.builder("stream.connections", connections, AtomicInteger::get)
+                .description("Open change streams")
+                .register(meterRegistry);
+    }
+
+    // Open a stream, the oldest stream of the user is closed once it has more than max-connections-per-user
+    public SseEmitter subscribe(String username) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open streams.");
+        }
+        Subscriber subscriber = new Subscriber(username, new SseEmitter(timeoutMillis));
+        List<Subscriber> evicted = new ArrayList<>();
+        subscribers.compute(username, (key, list) -> {
+            List<Subscriber> current = list != null ? list : new CopyOnWriteArrayList<>();
+            current.add(subscriber);
+            while (current.size() > maxConnectionsPerUser) {
+                evicted.add(current.remove(0));
+                connections.decrementAndGet();
+            }
+            return current;
+        });
+        evicted.forEach(Subscriber::complete);
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(subscriber));
+
+        // Current versions, a reconnecting client reloads every type whose version moved while it was away
+        Map<ResourceType, Long> versions = new EnumMap<>(ResourceType.class);
+        for (ResourceType type : ResourceType.values()) {
+            versions.put(type, userVersionService.current(username, type));
+        }
+        try {
+            emitter.send(SseEmitter.event().name("ready").data(versions, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    // Runs on the committing thread, only queues the delta
+    @EventListener
+    public void onChange(ChangeEvent event) {
+        List<Subscriber> list = subscribers.get(event.getUsername());
+        if (list == null) {
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            subscriber.offer(event);
+        }
+    }
+
+    // Named event on every open stream of the user, e.g. reminders, delivered through the same flush as changes
+    public void sendEvent(String username, String name, Object data) {
+        List<Subscriber> list = subscribers.get(username);
+        if (list == null) {
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            subscriber.notify(new Notice(name, data));
+        }
+    }
+
+    // Keeps idle streams open through proxies and detects clients that went away
+    @Scheduled(fixedRateString = "${application.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(list -> list.forEach(Subscriber::ping));
+    }
+
+    public int openConnections() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(list -> list.forEach(Subscriber::complete));
+        flusher.shutdown();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.username, (key, list) -> {
+            if (list.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * One open stream, at most one flush task runs per subscriber at a time.
+     */
+    private final class Subscriber {
+        private final String username;
+        private final SseEmitter emitter;
+        private final Map<ResourceType, Delta> pending = new EnumMap<>(ResourceType.class);
+        private final List<Notice> notices = new ArrayList<>();
+        private boolean ping;
+        private boolean flushing;
+        private boolean closed;
+
+        private Subscriber(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+        }
+
+        private void offer(ChangeEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                pending.computeIfAbsent(event.getType(), Delta::new).merge(event);
+                if (!startFlush()) {
+                    return;
+                }
+            }
+            flusher.execute(this::flush);
+        }
+
+        private void notify(Notice notice) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                notices.add(notice);
+                if (!startFlush()) {
+                    return;
+                }
+            }
+            flusher.execute(this::flush);
+        }
+
+        private void ping() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                ping = true;
+                if (!startFlush()) {
+                    return;
+                }
+            }
+            flusher.execute(this::flush);
+        }
+
+        private boolean startFlush() {
+            if (flushing) {
+                return false;
+            }
+            flushing = true;
+            return true;
+        }
+
+        // Drains until nothing is pending, deltas arriving during a send are merged into the next round
+        private void flush() {
+            while (true) {
+                List<ChangeEvent> batch;
+                List<Notice> sentNotices;
+                boolean sendPing;
+                synchronized (this) {
+                    if (closed || (pending.isEmpty() && notices.isEmpty() && !ping)) {
+                        flushing = false;
+                        return;
+                    }
+                    batch = pending.values().stream().map(Delta::toEvent).toList();
+                    pending.clear();
+                    sentNotices = List.copyOf(notices);
+                    notices.clear();
+                    sendPing = ping && batch.isEmpty() && sentNotices.isEmpty();
+                    ping = false;
+                }
+                try {
+                    for (ChangeEvent event : batch) {
+                        emitter.send(SseEmitter.event().name("change").data(event, MediaType.APPLICATION_JSON));
+                    }
+                    for (Notice notice : sentNotices) {
+                        emitter.send(SseEmitter.event().name(notice.name()).data(notice.data(), MediaType.APPLICATION_JSON));
+                    }
+                    if (sendPing) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Closing change stream of {}: {}", username, e.getMessage());
+                    synchronized (this) {
+                        closed = true;
+                        flushing = false;
+                    }
+                    remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        private void complete() {
+            synchronized (this) {
+                closed = true;
+            }
+            emitter.complete();
+        }
+    }
+
+    private record Notice(String name, Object data) {
+    }
+
+    /**
+     * Pending changes of one type, later changes of the same id replace earlier ones.
+     */
+    private final class Delta {
+        private final ResourceType type;
+        private final Set<Long> upserted = new LinkedHashSet<>();
+        private final Set<Long> deleted = new LinkedHashSet<>();
+        private long version;
+        private boolean resync;
+        private String username;
+
+        private Delta(ResourceType type) {
+            this.type = type;
+        }
+
+        private void merge(ChangeEvent event) {
+            username = event.getUsername();
+            version = Math.max(version, event.getVersion());
+            if (resync) {
+                return;
+            }
+            if (event.isResync() || upserted.size() + deleted.size() + event.getUpserted().size()
+                    + event.getDeleted().size() > maxPendingIds) {
+                resync = true;
+                upserted.clear();
+                deleted.clear();
+                return;
+            }
+            for (Long id : event.getUpserted()) {
+                deleted.remove(id);
+                upserted.add(id);
+            }
+            for (Long id : event.getDeleted()) {
+                upserted.remove(id);
+                deleted.add(id);
+            }
+        }
+
+        private ChangeEvent toEvent() {
+            return new ChangeEvent(username, type, version, List.copyOf(upserted), List.copyOf(deleted), resync, false);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.ChangeEvent;
+import cn.arorms.list.backend.pojos.dtos.ClusterMessage;
+import cn.arorms.list.backend.pojos.dtos.Reminder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClusterEventBus
+ * Fans committed ChangeEvents out to the other backend nodes over PostgreSQL LISTEN/NOTIFY.
+ * Local events are sent in order by one sender thread, each with the next sequence number of this node;
+ * remote events move the local version counters through UserVersionService, which invalidates the
+ * version-keyed caches and feeds the local change streams and the reminder scheduler.
+ * Reminders fired by the lease holder travel the same way to the nodes holding the user's change streams.
+ * Notifications are not durable: a gap in a node's sequence, a heartbeat ahead of the last message,
+ * or a lost listen connection means something was missed, and every local counter moves on.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@RegisterReflectionForBinding(ClusterMessage.class)
+@Service
+@ConditionalOnProperty(name = "application.cluster.enabled", havingValue = "true")
+public class ClusterEventBus {
+    private static final Logger log = LoggerFactory.getLogger(ClusterEventBus.class);
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int MAX_BATCH = 100;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<ClusterMessage> outbox;
+    private final Map<String, Peer> peers = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final UserVersionService userVersionService;
+    private final ObjectProvider<SseReminderSender> sseReminderSender;
+    private final String channel;
+    private final long heartbeatMillis;
+    private long seq;
+    private volatile boolean running = true;
+    private volatile long lastReceivedNanos = System.nanoTime();
+    private Thread sender;
+    private Thread listener;
+
+    public ClusterEventBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties, ObjectMapper objectMapper,
+                           UserVersionService userVersionService, ObjectProvider<SseReminderSender> sseReminderSender,
+                           @Value("${application.cluster.channel:arlist_changes}") String channel,
+                           @Value("${application.cluster.heartbeat-ms:10000}") long heartbeatMillis,
+                           @Value("${application.cluster.max-outbox:10000}") int maxOutbox) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.userVersionService = userVersionService;
+        this.sseReminderSender = sseReminderSender;
+        this.channel = channel;
+        this.heartbeatMillis = heartbeatMillis;
+        this.outbox = new LinkedBlockingQueue<>(maxOutbox);
+    }
+
+    @PostConstruct
+    public void start() {
+        sender = Thread.ofPlatform().name("cluster-sender").daemon().start(this::send);
+        listener = Thread.ofPlatform().name("cluster-listener").daemon().start(this::listen);
+        log.info("Cluster node {} on channel {}", nodeId, channel);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        sender.interrupt();
+        listener.interrupt();
+    }
+
+    // Runs after commit on the committing thread, only queues; remote events are not sent on again
+    @EventListener
+    public void onChange(ChangeEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        enqueue(false, event);
+    }
+
+    // Lets peers detect a lost last message, and proves the listen connection still receives
+    @Scheduled(fixedRateString = "${application.cluster.heartbeat-ms:10000}")
+    public void heartbeat() {
+        enqueue(true, null);
+        long now = System.nanoTime();
+        peers.values().removeIf(peer -> now - peer.lastSeenNanos > TimeUnit.MILLISECONDS.toNanos(heartbeatMillis * 30));
+    }
+
+    // Sequence numbers are taken in queue order; a full outbox drops the message, peers see the gap
+    private synchronized void enqueue(boolean heartbeat, ChangeEvent event) {
+        ClusterMessage message = heartbeat
+                ? new ClusterMessage(nodeId, seq, true, null, null, 0, null, null, false, null)
+                : new ClusterMessage(nodeId, ++seq, false, event.getUsername(), event.getType(), event.getVersion(),
+                        event.getUpserted(), event.getDeleted(), event.isResync(), null);
+        if (!outbox.offer(message) && !heartbeat) {
+            log.warn("Cluster outbox full, dropped change of {}", event.getUsername());
+        }
+    }
+
+    // Keeps the current seq, reminders are not part of the change sequence peers check for gaps
+    public synchronized void sendReminder(Reminder reminder) {
+        ClusterMessage message = new ClusterMessage(nodeId, seq, false, reminder.getUsername(), null, 0, null, null,
+                false, reminder);
+        if (!outbox.offer(message)) {
+            log.warn("Cluster outbox full, dropped reminder of todo {}", reminder.getTodoId());
+        }
+    }
+
+    private void send() {
+        List<ClusterMessage> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                batch.add(outbox.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            outbox.drainTo(batch, MAX_BATCH - 1);
+            String[] payloads = batch.stream().map(this::toPayload).toArray(String[]::new);
+            batch.clear();
+            try {
+                // One statement, so the batch is delivered in order
+                jdbcTemplate.execute((Connection connection) -> {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "SELECT pg_notify(?, payload) FROM unnest(?::text[]) WITH ORDINALITY AS p(payload, n) ORDER BY n")) {
+                        statement.setString(1, channel);
+                        statement.setArray(2, connection.createArrayOf("text", payloads));
+                        statement.execute();
+                    }
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                log.warn("Could not notify {} cluster messages: {}", payloads.length, e.getMessage());
+            }
+        }
+    }
+
+    private String toPayload(ClusterMessage message) {
+        try {
+            String payload = objectMapper.writeValueAsString(message);
+            if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+                return payload;
+            }
+            // Too many ids for one notification, peers reload the whole type instead
+            message.setUpserted(null);
+            message.setDeleted(null);
+            message.setResync(true);
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Dedicated connection outside the pool, reconnects with backoff and invalidates after every reconnect
+    private void listen() {
+        long backoffMillis = 1000;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    log.info("Cluster listener reconnected, invalidating local versions");
+                    peers.clear();
+                    userVersionService.invalidateAll();
+                }
+                connectedBefore = true;
+                backoffMillis = 1000;
+                lastReceivedNanos = System.nanoTime();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) heartbeatMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            lastReceivedNanos = System.nanoTime();
+                            receive(notification.getParameter());
+                        }
+                    }
+                    // Our own heartbeats come back through the database, silence means a dead connection
+                    if (System.nanoTime() - lastReceivedNanos > TimeUnit.MILLISECONDS.toNanos(heartbeatMillis * 3)) {
+                        throw new SQLException("No notification within " + heartbeatMillis * 3 + " ms");
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster listener disconnected, retrying in {} ms: {}", backoffMillis, e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 30_000);
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        properties.setProperty("ApplicationName", "arlist-cluster-" + nodeId.substring(0, 8));
+        properties.setProperty("socketTimeout", String.valueOf(TimeUnit.MILLISECONDS.toSeconds(heartbeatMillis * 6)));
+        properties.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void receive(String payload) {
+        ClusterMessage message;
+        try {
+            message = objectMapper.readValue(payload, ClusterMessage.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cluster message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(message.getNode())) {
+            return;
+        }
+        if (message.getReminder() != null) {
+            sseReminderSender.ifAvailable(sender -> sender.deliver(message.getReminder()));
+            return;
+        }
+        Peer peer = peers.computeIfAbsent(message.getNode(),
+                node -> new Peer(message.isHeartbeat() ? message.getSeq() : message.getSeq() - 1));
+        peer.lastSeenNanos = System.nanoTime();
+        if (message.isHeartbeat()) {
+            if (message.getSeq() > peer.seq) {
+                gap(message.getNode(), peer.seq + 1, message.getSeq());
+                peer.seq = message.getSeq();
+            }
+            return;
+        }
+        if (message.getSeq() <= peer.seq) {
+            return;
+        }
+        if (message.getSeq() > peer.seq + 1) {
+            gap(message.getNode(), peer.seq + 1, message.getSeq() - 1);
+        }
+        peer.seq = message.getSeq();
+        userVersionService.applyRemote(message.getUsername(), message.getType(), message.getVersion(),
+                message.getUpserted() != null ? message.getUpserted() : List.of(),
+                message.getDeleted() != null ? message.getDeleted() : List.of(),
+                message.isResync());
+    }
+
+    private void gap(String node, long from, long to) {
+        log.warn("Missed cluster messages {}..{} of node {}, invalidating local versions", from, to, node);
+        userVersionService.invalidateAll();
+    }
+
+    /**
+     * Last sequence number seen of one node, only touched by the listener thread.
+     */
+    private static final class Peer {
+        private long seq;
+        private volatile long lastSeenNanos = System.nanoTime();
+
+        private Peer(long seq) {
+            this.seq = seq;
+        }
+    }
+}
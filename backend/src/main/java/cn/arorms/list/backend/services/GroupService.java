@@ -1,12 +1,17 @@
 package cn.arorms.list.backend.services;
 
+import cn.arorms.list.backend.configs.CacheConfig;
 import cn.arorms.list.backend.pojos.entities.Group;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
 import cn.arorms.list.backend.repositories.GroupRepository;
-import jakarta.transaction.Transactional;
-import org.springframework.beans.factory.annotation.Autowired;
+import cn.arorms.list.backend.utils.OrderKeys;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -18,16 +23,33 @@ import java.util.Optional;
  */
 @Service
 public class GroupService {
-    @Autowired
-    private GroupRepository groupRepository;
+    private final GroupRepository groupRepository;
+    private final UserVersionService userVersionService;
+    private final OrderKeyRebalancer orderKeyRebalancer;
+    private final Cache groups;
 
-    public GroupService(GroupRepository groupRepository) {
+    public GroupService(GroupRepository groupRepository, UserVersionService userVersionService,
+                        OrderKeyRebalancer orderKeyRebalancer, CacheManager cacheManager) {
         this.groupRepository = groupRepository;
+        this.userVersionService = userVersionService;
+        this.orderKeyRebalancer = orderKeyRebalancer;
+        this.groups = cacheManager.getCache(CacheConfig.GROUPS);
     }
 
+    @Transactional(readOnly = true)
     public List<Group> getAllByUsername(String username) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "orderIndex");
-        return groupRepository.findByCreatedBy(username, sort);
+        String key = username + ":" + userVersionService.current(username, ResourceType.GROUP);
+        return groups.get(key, () -> loadAllByUsername(username));
+    }
+
+    private List<Group> loadAllByUsername(String username) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "orderKey", "id");
+        List<Group> groupList = groupRepository.findByCreatedBy(username, sort);
+        // Positions for the ui, top of the list has the largest index
+        for (int i = 0; i < groupList.size(); i++) {
+            groupList.get(i).setOrderIndex(groupList.size() - 1 - i);
+        }
+        return groupList;
     }
 
     public Group addGroup(String username, Group group) {
@@ -39,44 +61,76 @@ public class GroupService {
         // Set user
         group.setCreatedBy(username);
 
-        // Set group order index for ui
-        int count = groupRepository.countByCreatedBy(username);
-        group.setOrderIndex(count);
+        // New groups go on top
+        group.setOrderKey(OrderKeys.between(groupRepository.findMaxOrderKey(username), null));
 
-        return groupRepository.save(group);
+        Group saved = groupRepository.save(group);
+        userVersionService.bump(username, ResourceType.GROUP, List.of(saved.getId()), List.of());
+        return saved;
     }
 
     public Group updateGroup(String username, Group group) {
-        if (!groupRepository.existsById(group.getId())) {
-            throw new NoSuchElementException("Can not found exsiting group");
+        if (group.getName() == null) {
+            throw new IllegalArgumentException("Property 'name' cannot be null.");
         }
+        // Only name and description, the order is changed through updateGroupOrder
+        Long changeSeq = groupRepository.updateByIdAndCreatedBy(group.getId(), username, group.getName(), group.getDescription())
+                .orElseThrow(() -> new NoSuchElementException("Can not found exsiting group"));
         group.setCreatedBy(username);
-        return groupRepository.save(group);
+        group.setChangeSeq(changeSeq);
+        userVersionService.bump(username, ResourceType.GROUP, List.of(group.getId()), List.of());
+        // Todo pages embed the group, so they go stale too
+        userVersionService.bump(username, ResourceType.TODO);
+        return group;
     }
 
+    // Move a group to position orderIndex (0 = bottom), only the moved row is written
     @Transactional
     public Group updateGroupOrder(String username, Group group) {
-
-        int originalOrderIndex = groupRepository.findById(group.getId())
-                .map(Group::getOrderIndex)
+        List<Group> ordered = groupRepository.findByCreatedBy(username, Sort.by(Sort.Direction.ASC, "orderKey", "id"));
+        Group moved = ordered.stream()
+                .filter(candidate -> candidate.getId().equals(group.getId()))
+                .findFirst()
                 .orElseThrow(() -> new NoSuchElementException("Can not found exsiting group with id: " + group.getId()));
 
-        int changedOrderIndex = group.getOrderIndex();
+        int originalOrderIndex = ordered.indexOf(moved);
+        int changedOrderIndex = Math.max(0, Math.min(group.getOrderIndex(), ordered.size() - 1));
+        if (originalOrderIndex == changedOrderIndex) {
+            moved.setOrderIndex(changedOrderIndex);
+            return moved;
+        }
 
-        // Shift related group order index before update the target group.
-        if (originalOrderIndex < changedOrderIndex) {
-            groupRepository.shiftBackward(originalOrderIndex + 1, changedOrderIndex, username);
+        List<Group> others = new ArrayList<>(ordered);
+        others.remove(moved);
+        Long lower = changedOrderIndex > 0 ? others.get(changedOrderIndex - 1).getOrderKey() : null;
+        Long upper = changedOrderIndex < others.size() ? others.get(changedOrderIndex).getOrderKey() : null;
+        Long orderKey = OrderKeys.between(lower, upper);
+
+        if (orderKey == null) {
+            // No room left between the neighbours, respread the whole list in this transaction
+            others.add(changedOrderIndex, moved);
+            for (int i = 0; i < others.size(); i++) {
+                others.get(i).setOrderKey(i * OrderKeys.GAP);
+            }
         } else {
-            groupRepository.shiftForward(changedOrderIndex, originalOrderIndex - 1, username);
+            // Dynamic update, flushed as a single-column UPDATE of the moved row
+            moved.setOrderKey(orderKey);
+            if (OrderKeys.isCrowded(lower, orderKey, upper)) {
+                orderKeyRebalancer.rebalanceGroupsLater(username);
+            }
         }
 
-
-        return groupRepository.save(group);
+        moved.setOrderIndex(changedOrderIndex);
+        // Positions of every group in between shift, clients reload the list
+        userVersionService.bump(username, ResourceType.GROUP);
+        return moved;
     }
 
-    public void deleteGroup(Long id) {
-        Optional<Group> groupOptional = groupRepository.findById(id);
+    public void deleteGroup(String username, Long id) {
+        Optional<Group> groupOptional = groupRepository.findByIdAndCreatedBy(id, username);
         Group group = groupOptional.orElseThrow(() -> new RuntimeException("Group not found with ID: " + id));
         groupRepository.delete(group);
+        userVersionService.bump(username, ResourceType.GROUP, List.of(), List.of(id));
+        userVersionService.bump(username, ResourceType.TODO);
     }
 }
@@ -0,0 +1,92 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.repositories.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * LeaderLease
+ * Database lease that elects the one node running the reminder scheduler.
+ * The holder renews well before expiry; a node that cannot renew considers itself follower
+ * once its own ttl has passed, measured from before the renewal was sent.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Service
+@ConditionalOnProperty(name = "application.reminder.enabled", havingValue = "true", matchIfMissing = true)
+public class LeaderLease {
+    private static final Logger log = LoggerFactory.getLogger(LeaderLease.class);
+    private static final String NAME = "reminder-scheduler";
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final String owner;
+    private final Duration ttl;
+    private volatile long heldUntilNanos;
+    private volatile boolean held;
+
+    public LeaderLease(SchedulerLeaseRepository schedulerLeaseRepository,
+                       @Value("${application.reminder.lease-ttl:30s}") Duration ttl) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.ttl = ttl;
+        this.owner = hostname() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Scheduled(fixedRateString = "${application.reminder.lease-renew-ms:10000}")
+    public void renew() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = schedulerLeaseRepository.tryAcquire(NAME, owner, ttl.toSeconds()) == 1;
+        } catch (DataAccessException e) {
+            log.warn("Could not renew lease {}: {}", NAME, e.getMessage());
+            acquired = false;
+        }
+        if (acquired) {
+            heldUntilNanos = start + ttl.toNanos();
+        }
+        if (acquired != held) {
+            log.info("{} lease {} as {}", acquired ? "Acquired" : "Lost", NAME, owner);
+        }
+        held = acquired;
+    }
+
+    public boolean isHeld() {
+        return held && System.nanoTime() - heldUntilNanos < 0;
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    // Hand over right away instead of letting the lease run out
+    @PreDestroy
+    public void release() {
+        if (held) {
+            held = false;
+            try {
+                schedulerLeaseRepository.release(NAME, owner);
+            } catch (DataAccessException e) {
+                log.warn("Could not release lease {}: {}", NAME, e.getMessage());
+            }
+        }
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.Reminder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for e-mail or push delivery, writes reminders to the log.
+ */
+@Component
+@ConditionalOnProperty(name = "application.reminder.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingReminderSender implements ReminderSender {
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderSender.class);
+
+    @Override
+    public void send(Reminder reminder) {
+        log.info("Reminder for {}: todo {} \"{}\" is due at {}", reminder.getUsername(), reminder.getTodoId(),
+                reminder.getTitle(), reminder.getDeadline());
+    }
+}
@@ -0,0 +1,123 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.entities.Group;
+import cn.arorms.list.backend.pojos.entities.Todo;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import cn.arorms.list.backend.repositories.GroupRepository;
+import cn.arorms.list.backend.repositories.TodoRepository;
+import cn.arorms.list.backend.utils.OrderKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Respreads order keys GAP apart once moves have used up the room between neighbours.
+ * Rows are locked while rewritten so concurrent moves wait instead of interleaving.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Service
+public class OrderKeyRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(OrderKeyRebalancer.class);
+    private final GroupRepository groupRepository;
+    private final TodoRepository todoRepository;
+    private final UserVersionService userVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    public OrderKeyRebalancer(GroupRepository groupRepository, TodoRepository todoRepository,
+                              UserVersionService userVersionService, TransactionTemplate transactionTemplate,
+                              @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                              TaskExecutor taskExecutor) {
+        this.groupRepository = groupRepository;
+        this.todoRepository = todoRepository;
+        this.userVersionService = userVersionService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public void rebalanceGroupsLater(String username) {
+        afterCommit(() -> rebalanceGroups(username, true));
+    }
+
+    public void rebalanceTodosLater(String username, Long groupId) {
+        afterCommit(() -> rebalanceTodos(username, groupId, true));
+    }
+
+    // Started once the calling move commits, a rebalance running earlier would respread the keys
+    // the move computed its midpoint from, and the move would then land between the wrong rows
+    private void afterCommit(Runnable rebalance) {
+        Runnable task = () -> {
+            try {
+                rebalance.run();
+            } catch (RuntimeException e) {
+                log.warn("Order key rebalance failed: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    taskExecutor.execute(task);
+                }
+            });
+        } else {
+            taskExecutor.execute(task);
+        }
+    }
+
+    // Joins the caller's transaction when there is one
+    public void rebalanceGroups(String username) {
+        rebalanceGroups(username, false);
+    }
+
+    public void rebalanceTodos(String username, Long groupId) {
+        rebalanceTodos(username, groupId, false);
+    }
+
+    // A background respread keeps change_seq (V11), a client holding the old value may still edit the row,
+    // the version bump makes it reload the new order
+    private void rebalanceGroups(String username, boolean background) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (background) {
+                todoRepository.markBackgroundWrite();
+            }
+            List<Group> groups = groupRepository.findForRebalance(username);
+            long key = 0;
+            for (Group group : groups) {
+                group.setOrderKey(key);
+                key += OrderKeys.GAP;
+            }
+            log.info("Rebalanced {} group order keys of {}", groups.size(), username);
+        });
+        userVersionService.bump(username, ResourceType.GROUP);
+    }
+
+    private void rebalanceTodos(String username, Long groupId, boolean background) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (background) {
+                todoRepository.markBackgroundWrite();
+            }
+            List<Todo> todos = todoRepository.findForRebalance(username, groupId);
+            if (todos.isEmpty()) {
+                return;
+            }
+            // Start from the smallest key so todos created later still sort first
+            long key = todos.get(0).getOrderKey();
+            for (Todo todo : todos) {
+                todo.setOrderKey(key);
+                key += OrderKeys.GAP;
+            }
+            log.info("Rebalanced {} todo order keys of {} in group {}", todos.size(), username, groupId);
+        });
+        userVersionService.bump(username, ResourceType.TODO);
+    }
+}
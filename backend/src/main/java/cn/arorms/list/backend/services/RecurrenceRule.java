@@ -0,0 +1,235 @@
+package cn.arorms.list.backend.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Recurrence of a todo series, the RRULE subset FREQ, INTERVAL, COUNT, UNTIL and BYDAY (weekly only).
+ * The deadline of the series is the first occurrence, every occurrence is computed from it so nothing drifts.
+ * As in RFC 5545 the start counts as the first occurrence (and toward COUNT) even on a day BYDAY does not list.
+ * Monthly and yearly dates that do not exist in a period (the 31st, February 29) are skipped, not clamped.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+public final class RecurrenceRule {
+    // Upper bound of occurrences expanded for one series and window
+    public static final int MAX_OCCURRENCES = 1000;
+    private static final int MAX_COUNT = 10000;
+    private static final int MAX_INTERVAL = 1000;
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS), WEEKLY(ChronoUnit.WEEKS), MONTHLY(ChronoUnit.MONTHS), YEARLY(ChronoUnit.YEARS);
+
+        private final ChronoUnit unit;
+
+        Frequency(ChronoUnit unit) {
+            this.unit = unit;
+        }
+    }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDateTime until;
+    private final Set<DayOfWeek> byDay;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDateTime until, Set<DayOfWeek> byDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    // Parse "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;COUNT=10", an "RRULE:" prefix is accepted
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule must not be empty.");
+        }
+        String text = rule.trim().toUpperCase(Locale.ROOT);
+        if (text.startsWith("RRULE:")) {
+            text = text.substring("RRULE:".length());
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDateTime until = null;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        for (String part : text.split(";")) {
+            int separator = part.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String name = part.substring(0, separator);
+            String value = part.substring(separator + 1);
+            switch (name) {
+                case "FREQ" -> frequency = parseFrequency(value);
+                case "INTERVAL" -> interval = parseNumber(name, value, MAX_INTERVAL);
+                case "COUNT" -> count = parseNumber(name, value, MAX_COUNT);
+                case "UNTIL" -> until = parseUntil(value);
+                case "BYDAY" -> {
+                    for (String day : value.split(",")) {
+                        byDay.add(parseDay(day));
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule needs FREQ.");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("Recurrence rule can not have both COUNT and UNTIL.");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY.");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, byDay);
+    }
+
+    private static Frequency parseFrequency(String value) {
+        try {
+            return Frequency.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported recurrence frequency: " + value);
+        }
+    }
+
+    private static int parseNumber(String name, String value, int max) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= 1 && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(name + " must be between 1 and " + max + ".");
+    }
+
+    // Date-only UNTIL includes the whole day, a trailing Z is read as local time like every other timestamp here
+    private static LocalDateTime parseUntil(String value) {
+        String text = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+        try {
+            return text.length() == 8
+                    ? LocalDate.parse(text, UNTIL_DATE).atTime(LocalTime.MAX)
+                    : LocalDateTime.parse(text, UNTIL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("UNTIL must be yyyyMMdd or yyyyMMdd'T'HHmmss.");
+        }
+    }
+
+    private static DayOfWeek parseDay(String day) {
+        return switch (day) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Unsupported BYDAY value: " + day);
+        };
+    }
+
+    // Occurrences of a series starting at start inside [from, to), at most max of them, in order
+    public List<LocalDateTime> occurrences(LocalDateTime start, LocalDateTime from, LocalDateTime to, int max) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        if (!from.isBefore(to) || max < 1) {
+            return occurrences;
+        }
+        LocalDateTime periodStart = byDay.isEmpty()
+                ? start
+                : start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        // Without COUNT nothing before the window matters, jump to the period just before it
+        long period = 0;
+        if (count == null && from.isAfter(start)) {
+            period = Math.max(0, frequency.unit.between(periodStart, from) / interval - 1);
+        }
+        long index = 0;
+        while (true) {
+            LocalDateTime base = periodStart.plus(period * interval, frequency.unit);
+            if (!base.isBefore(to)) {
+                return occurrences;
+            }
+            for (LocalDateTime candidate : candidates(start, base, period == 0)) {
+                if (candidate.isBefore(start)) {
+                    continue;
+                }
+                index++;
+                if ((count != null && index > count) || (until != null && candidate.isAfter(until))
+                        || !candidate.isBefore(to)) {
+                    return occurrences;
+                }
+                if (!candidate.isBefore(from)) {
+                    occurrences.add(candidate);
+                    if (occurrences.size() == max) {
+                        return occurrences;
+                    }
+                }
+            }
+            period++;
+        }
+    }
+
+    // Whether date is one of the occurrences of a series starting at start
+    public boolean occursAt(LocalDateTime start, LocalDateTime date) {
+        List<LocalDateTime> found = occurrences(start, date, date.plusSeconds(1), 1);
+        return !found.isEmpty() && found.get(0).equals(date);
+    }
+
+    private List<LocalDateTime> candidates(LocalDateTime start, LocalDateTime base, boolean first) {
+        if (!byDay.isEmpty()) {
+            List<LocalDateTime> days = new ArrayList<>(byDay.size() + 1);
+            // Listed days of the first week come after a start outside BYDAY, so the list stays in order
+            if (first && !byDay.contains(start.getDayOfWeek())) {
+                days.add(start);
+            }
+            for (DayOfWeek day : byDay) {
+                days.add(base.with(TemporalAdjusters.nextOrSame(day)));
+            }
+            return days;
+        }
+        // plusMonths clamps the 31st to the end of shorter months, such periods have no occurrence
+        boolean exists = switch (frequency) {
+            case MONTHLY -> base.getDayOfMonth() == start.getDayOfMonth();
+            case YEARLY -> base.getDayOfMonth() == start.getDayOfMonth() && base.getMonth() == start.getMonth();
+            default -> true;
+        };
+        return exists ? List.of(base) : List.of();
+    }
+
+    // Canonical form, stored in todos.recurrence_rule
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (!byDay.isEmpty()) {
+            rule.append(";BYDAY=").append(byDay.stream()
+                    .map(day -> day.name().substring(0, 2))
+                    .collect(Collectors.joining(",")));
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(until.format(UNTIL_DATE_TIME));
+        }
+        return rule.toString();
+    }
+}
@@ -0,0 +1,249 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.ChangeEvent;
+import cn.arorms.list.backend.pojos.dtos.Reminder;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import cn.arorms.list.backend.repositories.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReminderScheduler
+ * Fires a reminder lead before each open todo's deadline. Only the LeaderLease holder schedules:
+ * every refresh range-scans the next window of deadlines on the partial index idx_todos_reminder_due
+ * into an in-memory delay queue, and todo ChangeEvents keep the queue current in between.
+ * A reminder is claimed with a conditional UPDATE before it is sent, so a lease handover or a
+ * stale queue entry never sends twice or for a completed or rescheduled todo.
+ * Claimed reminders are handed to the senders on a bounded dispatch pool, a slow sender only holds up its own
+ * deliveries; once max-pending deliveries wait, further ones are dropped and counted.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Service
+@ConditionalOnProperty(name = "application.reminder.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    private final DelayQueue<ScheduledReminder> queue = new DelayQueue<>();
+    private final Map<Long, ScheduledReminder> scheduled = new ConcurrentHashMap<>();
+    private final ExecutorService worker = Executors.newVirtualThreadPerTaskExecutor();
+    private final ThreadPoolExecutor dispatcher;
+    private final TodoRepository todoRepository;
+    private final LeaderLease leaderLease;
+    private final List<ReminderSender> senders;
+    private final Duration lead;
+    private final Duration window;
+    private final Duration grace;
+    private final int maxQueued;
+    private final Counter sent;
+    private final Counter dropped;
+    private volatile boolean running = true;
+
+    public ReminderScheduler(TodoRepository todoRepository, LeaderLease leaderLease, List<ReminderSender> senders,
+                             @Value("${application.reminder.lead:15m}") Duration lead,
+                             @Value("${application.reminder.window:10m}") Duration window,
+                             @Value("${application.reminder.grace:1h}") Duration grace,
+                             @Value("${application.reminder.max-queued:100000}") int maxQueued,
+                             @Value("${application.reminder.dispatch-threads:4}") int dispatchThreads,
+                             @Value("${application.reminder.max-pending:1000}") int maxPending,
+                             MeterRegistry meterRegistry) {
+        this.todoRepository = todoRepository;
+        this.leaderLease = leaderLease;
+        this.senders = senders;
+        this.lead = lead;
+        this.window = window;
+        this.grace = grace;
+        this.maxQueued = maxQueued;
+        this.sent = Counter.builder("reminders.sent").description("Reminders claimed and sent").register(meterRegistry);
+        this.dropped = Counter.builder("reminders.dropped")
+                .description("Reminder deliveries dropped because max-pending were waiting")
+                .register(meterRegistry);
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPending), Thread.ofVirtual().name("reminder-dispatch-", 0).factory());
+        Gauge.builder("reminders.queued", scheduled, Map::size)
+                .description("Reminders waiting in the delay queue")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker.execute(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        worker.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    // Reloads the upcoming window, overlapping the previous one so nothing falls between two refreshes
+    @Scheduled(fixedRateString = "${application.reminder.refresh-ms:60000}", initialDelayString = "${application.reminder.lease-renew-ms:10000}")
+    public void refresh() {
+        if (!leaderLease.isHeld()) {
+            if (!scheduled.isEmpty()) {
+                clear();
+            }
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<Reminder> due = todoRepository.findDueReminders(now.minus(grace), now.plus(lead).plus(window),
+                    Limit.of(maxQueued));
+            due.forEach(this::schedule);
+        } catch (DataAccessException e) {
+            log.warn("Could not load reminders: {}", e.getMessage());
+        }
+    }
+
+    // Keeps the queue current between refreshes, runs on the committing thread so reloads go to the worker
+    @EventListener
+    public void onChange(ChangeEvent event) {
+        if (event.getType() != ResourceType.TODO || event.isResync() || !leaderLease.isHeld()) {
+            return;
+        }
+        event.getDeleted().forEach(this::cancel);
+        if (event.getUpserted().isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(event.getUpserted());
+        worker.execute(() -> reload(ids));
+    }
+
+    private void reload(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            ids.forEach(this::cancel);
+            todoRepository.findDueRemindersByIdIn(ids, now.minus(grace), now.plus(lead).plus(window))
+                    .forEach(this::schedule);
+        } catch (DataAccessException e) {
+            log.warn("Could not reload reminders of {}: {}", ids, e.getMessage());
+        }
+    }
+
+    // Replaces the queued entry only when the deadline moved
+    private void schedule(Reminder reminder) {
+        scheduled.compute(reminder.getTodoId(), (id, current) -> {
+            if (current != null && current.reminder.getDeadline().equals(reminder.getDeadline())) {
+                return current;
+            }
+            if (current != null) {
+                queue.remove(current);
+            } else if (scheduled.size() >= maxQueued) {
+                return null;
+            }
+            ScheduledReminder entry = new ScheduledReminder(reminder, fireAtNanos(reminder.getDeadline()));
+            queue.add(entry);
+            return entry;
+        });
+    }
+
+    private void cancel(Long todoId) {
+        ScheduledReminder entry = scheduled.remove(todoId);
+        if (entry != null) {
+            queue.remove(entry);
+        }
+    }
+
+    private void clear() {
+        queue.clear();
+        scheduled.clear();
+    }
+
+    private long fireAtNanos(LocalDateTime deadline) {
+        long millis = ChronoUnit.MILLIS.between(LocalDateTime.now(), deadline.minus(lead));
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private void run() {
+        while (running) {
+            ScheduledReminder entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Reminder reminder = entry.reminder;
+            if (!scheduled.remove(reminder.getTodoId(), entry) || !leaderLease.isHeld()) {
+                continue;
+            }
+            try {
+                if (todoRepository.markReminded(reminder.getTodoId(), reminder.getDeadline()) != 1) {
+                    continue;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not claim reminder of todo {}: {}", reminder.getTodoId(), e.getMessage());
+                continue;
+            }
+            sent.increment();
+            for (ReminderSender sender : senders) {
+                try {
+                    dispatcher.execute(() -> dispatch(sender, reminder));
+                } catch (RejectedExecutionException e) {
+                    dropped.increment();
+                    log.warn("{} backlog full, dropped reminder of todo {}", sender.getClass().getSimpleName(),
+                            reminder.getTodoId());
+                }
+            }
+        }
+    }
+
+    // Senders bound their own time, WebhookReminderSender through its connect and read timeouts
+    private void dispatch(ReminderSender sender, Reminder reminder) {
+        try {
+            sender.send(reminder);
+        } catch (RuntimeException e) {
+            log.warn("{} failed for todo {}: {}", sender.getClass().getSimpleName(), reminder.getTodoId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Queue entry, identity matters: a replaced entry is skipped when it surfaces.
+     */
+    private static final class ScheduledReminder implements Delayed {
+        private final Reminder reminder;
+        private final long fireAtNanos;
+
+        private ScheduledReminder(Reminder reminder, long fireAtNanos) {
+            this.reminder = reminder;
+            this.fireAtNanos = fireAtNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAtNanos, ((ScheduledReminder) other).fireAtNanos);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.Reminder;
+
+/**
+ * Delivery channel of deadline reminders, every enabled bean receives every reminder.
+ * Implementations should not throw for delivery failures of a single reminder.
+ */
+public interface ReminderSender {
+    void send(Reminder reminder);
+}
@@ -0,0 +1,33 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.Reminder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends reminders as "reminder" events on the user's open change streams.
+ * Only the lease holder fires reminders, ClusterEventBus carries them to the streams open on other nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "application.reminder.sse.enabled", havingValue = "true", matchIfMissing = true)
+public class SseReminderSender implements ReminderSender {
+    private final ChangeStreamService changeStreamService;
+    private final ObjectProvider<ClusterEventBus> clusterEventBus;
+
+    public SseReminderSender(ChangeStreamService changeStreamService, ObjectProvider<ClusterEventBus> clusterEventBus) {
+        this.changeStreamService = changeStreamService;
+        this.clusterEventBus = clusterEventBus;
+    }
+
+    @Override
+    public void send(Reminder reminder) {
+        deliver(reminder);
+        clusterEventBus.ifAvailable(bus -> bus.sendReminder(reminder));
+    }
+
+    // Streams of this node only, also called for reminders fired on another node
+    public void deliver(Reminder reminder) {
+        changeStreamService.sendEvent(reminder.getUsername(), "reminder", reminder);
+    }
+}
@@ -0,0 +1,84 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.SyncPushRequest;
+import cn.arorms.list.backend.pojos.dtos.SyncPushResponse;
+import cn.arorms.list.backend.pojos.dtos.SyncResponse;
+import cn.arorms.list.backend.pojos.dtos.TodoBatchResult;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import cn.arorms.list.backend.repositories.GroupRepository;
+import cn.arorms.list.backend.repositories.TodoRepository;
+import cn.arorms.list.backend.repositories.TombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * SyncService
+ * Delta sync for offline clients. Rows and tombstones carry the id of their writing transaction,
+ * a token is the xmin of the snapshot the delta was read in.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Service
+public class SyncService {
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    private final TodoRepository todoRepository;
+    private final GroupRepository groupRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final TodoService todoService;
+    private final TransactionTemplate snapshotTransaction;
+    private final int tombstoneRetentionDays;
+
+    public SyncService(TodoRepository todoRepository, GroupRepository groupRepository,
+                       TombstoneRepository tombstoneRepository, TodoService todoService,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${application.sync.tombstone-retention-days:30}") int tombstoneRetentionDays) {
+        this.todoRepository = todoRepository;
+        this.groupRepository = groupRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.todoService = todoService;
+        // Token and rows must come from one snapshot
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    // Everything written or deleted since the token, a full snapshot when since is missing or too old
+    public SyncResponse changesSince(String username, Long since) {
+        return snapshotTransaction.execute(status -> {
+            long token = tombstoneRepository.currentSyncToken();
+            boolean reset = since == null || since < tombstoneRepository.findHorizon();
+            long from = reset ? 0 : since;
+            return new SyncResponse(
+                    token,
+                    reset,
+                    todoRepository.findChangedSince(username, from),
+                    groupRepository.findByCreatedByAndChangeSeqGreaterThanEqual(username, from),
+                    reset ? List.of() : tombstoneRepository.findDeletedIdsSince(username, ResourceType.TODO, from),
+                    reset ? List.of() : tombstoneRepository.findDeletedIdsSince(username, ResourceType.GROUP, from));
+        });
+    }
+
+    // Apply the offline queue, then answer with the delta that includes the client's own writes and any conflicts
+    public SyncPushResponse push(String username, SyncPushRequest request) {
+        List<TodoBatchResult> results = todoService.applyBatch(username, request.getOperations());
+        return new SyncPushResponse(results, changesSince(username, request.getSince()));
+    }
+
+    // Tokens older than the purged tombstones get a reset
+    @Scheduled(cron = "${application.sync.purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        tombstoneRepository.purgeBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        log.info("Purged tombstones older than {} days", tombstoneRetentionDays);
+    }
+}
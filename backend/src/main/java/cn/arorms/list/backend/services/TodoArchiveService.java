@@ -0,0 +1,91 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.ArchivedTodoRef;
+import cn.arorms.list.backend.pojos.dtos.TodoSummary;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import cn.arorms.list.backend.repositories.ArchivedTodoRepository;
+import cn.arorms.list.backend.repositories.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * TodoArchiveService
+ * Keeps todos to the hot set: completed todos older than application.archive.after move to todos_archive
+ * in small batches, one transaction each, so no run holds locks or WAL for long. Archived todos leave a
+ * tombstone like deleted ones and come back through TodoService.toggleCompleted.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Service
+public class TodoArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(TodoArchiveService.class);
+
+    private final TodoRepository todoRepository;
+    private final ArchivedTodoRepository archivedTodoRepository;
+    private final UserVersionService userVersionService;
+    private final Duration after;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    public TodoArchiveService(TodoRepository todoRepository, ArchivedTodoRepository archivedTodoRepository,
+                              UserVersionService userVersionService,
+                              @Value("${application.archive.after:30d}") Duration after,
+                              @Value("${application.archive.batch-size:1000}") int batchSize,
+                              @Value("${application.archive.pause-ms:100}") long pauseMillis) {
+        this.todoRepository = todoRepository;
+        this.archivedTodoRepository = archivedTodoRepository;
+        this.userVersionService = userVersionService;
+        this.after = after;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    // Completed todos of the user that left the hot set, most recently completed first
+    @Transactional(readOnly = true)
+    public Page<TodoSummary> getArchive(Pageable pageable, String username) {
+        Pageable sortedPageable = PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                Sort.by(Sort.Order.desc("completedAt"), Sort.Order.desc("id"))
+        );
+        return archivedTodoRepository.findSummariesByCreatedBy(username, sortedPageable);
+    }
+
+    // Batches until nothing old enough is left, nodes running it at the same time skip each other's rows
+    @Scheduled(cron = "${application.archive.cron:0 0 4 * * *}")
+    public void archiveCompleted() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(after);
+        long archived = 0;
+        while (true) {
+            List<ArchivedTodoRef> batch = todoRepository.archiveCompletedBefore(cutoff, batchSize);
+            archived += batch.size();
+            Map<String, List<Long>> idsByUser = batch.stream().collect(Collectors.groupingBy(
+                    ArchivedTodoRef::getCreatedBy, Collectors.mapping(ArchivedTodoRef::getId, Collectors.toList())));
+            idsByUser.forEach((username, ids) -> userVersionService.bump(username, ResourceType.TODO, List.of(), ids));
+            if (batch.size() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("Archived {} todos completed before {}", archived, cutoff);
+    }
+}
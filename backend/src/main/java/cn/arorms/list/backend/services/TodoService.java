@@ -1,18 +1,48 @@
 package cn.arorms.list.backend.services;
 
+import cn.arorms.list.backend.configs.CacheConfig;
+import cn.arorms.list.backend.pojos.dtos.ChangeSeqRef;
+import cn.arorms.list.backend.pojos.dtos.CursorPage;
+import cn.arorms.list.backend.pojos.dtos.SearchCursor;
+import cn.arorms.list.backend.pojos.dtos.TodoBatchOperation;
+import cn.arorms.list.backend.pojos.dtos.TodoBatchResult;
+import cn.arorms.list.backend.pojos.dtos.TodoCursor;
+import cn.arorms.list.backend.pojos.dtos.TodoMoveRequest;
+import cn.arorms.list.backend.pojos.dtos.TodoSearchHit;
+import cn.arorms.list.backend.pojos.dtos.TodoSummary;
 import cn.arorms.list.backend.pojos.entities.Todo;
+import cn.arorms.list.backend.pojos.enums.BatchOperationType;
+import cn.arorms.list.backend.pojos.enums.BatchResultStatus;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
 import cn.arorms.list.backend.repositories.GroupRepository;
 import cn.arorms.list.backend.repositories.TodoRepository;
+import cn.arorms.list.backend.utils.OrderKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * TodoService
@@ -22,17 +52,44 @@ import java.util.Optional;
 @Service
 public class TodoService {
     private static final Logger log = LoggerFactory.getLogger(TodoService.class);
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_QUERY_LENGTH = 200;
     private final TodoRepository todoRepository;
     private final GroupRepository groupRepository;
+    private final UserVersionService userVersionService;
+    private final OrderKeyRebalancer orderKeyRebalancer;
+    private final Cache todoPages;
 
-    public TodoService(TodoRepository todoRepository, GroupRepository groupRepository) {
+    public TodoService(TodoRepository todoRepository, GroupRepository groupRepository,
+                       UserVersionService userVersionService, OrderKeyRebalancer orderKeyRebalancer,
+                       CacheManager cacheManager) {
         this.todoRepository = todoRepository;
         this.groupRepository = groupRepository;
+        this.userVersionService = userVersionService;
+        this.orderKeyRebalancer = orderKeyRebalancer;
+        this.todoPages = cacheManager.getCache(CacheConfig.TODO_PAGES);
     }
 
-    public Page<Todo> getAllByUsername(Pageable pageable, String username, Long groupId) {
-        Sort sort = Sort.by(Sort.Order.asc("isCompleted"),
-                Sort.Order.desc("createdAt"));
+    @Transactional(readOnly = true)
+    public Page<TodoSummary> getAllByUsername(Pageable pageable, String username, Long groupId) {
+        return getAllByUsername(pageable, username, groupId, false);
+    }
+
+    // manualOrder lists a group by the order set through moveTodo instead of completion and creation time
+    @Transactional(readOnly = true)
+    public Page<TodoSummary> getAllByUsername(Pageable pageable, String username, Long groupId, boolean manualOrder) {
+        if (manualOrder && groupId == null) {
+            throw new IllegalArgumentException("Manual order needs a group.");
+        }
+        String key = pageKey(username, manualOrder ? "manual" : "page", groupId,
+                pageable.getPageNumber(), pageable.getPageSize());
+        return todoPages.get(key, () -> loadAllByUsername(pageable, username, groupId, manualOrder));
+    }
+
+    private Page<TodoSummary> loadAllByUsername(Pageable pageable, String username, Long groupId, boolean manualOrder) {
+        Sort sort = manualOrder
+                ? Sort.by(Sort.Order.asc("orderKey"), Sort.Order.asc("id"))
+                : Sort.by(Sort.Order.asc("isCompleted"), Sort.Order.desc("createdAt"));
 
         Pageable sortedPageable = PageRequest.of(
                 pageable.getPageNumber(),
@@ -41,13 +98,127 @@ public class TodoService {
         );
 
         if (groupId != null) {
-            return todoRepository.findByCreatedByAndGroup_Id(username, groupId, sortedPageable);
+            return todoRepository.findSummariesByCreatedByAndGroupId(username, groupId, sortedPageable);
+        }
+
+        return todoRepository.findSummariesByCreatedBy(username, sortedPageable);
+    }
+
+    // Keyset variant of getAllByUsername: seeks past the cursor instead of skipping rows and never counts
+    @Transactional(readOnly = true)
+    public CursorPage<TodoSummary> getSliceByUsername(String username, Long groupId, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            throw new IllegalArgumentException("Size must be between 1 and 100.");
+        }
+        // Decode before the cache lookup so a bad cursor surfaces as IllegalArgumentException
+        TodoCursor after = cursor == null || cursor.isBlank() ? null : TodoCursor.decode(cursor);
+        String key = pageKey(username, "slice", groupId, cursor, size);
+        return todoPages.get(key, () -> loadSliceByUsername(username, groupId, after, size));
+    }
+
+    private CursorPage<TodoSummary> loadSliceByUsername(String username, Long groupId, TodoCursor after, int size) {
+        // Fetch one extra row to learn whether another slice follows
+        Limit limit = Limit.of(size + 1);
+        List<TodoSummary> todos;
+        if (after == null) {
+            todos = groupId != null
+                    ? todoRepository.findFirstSliceInGroup(username, groupId, limit)
+                    : todoRepository.findFirstSlice(username, limit);
+        } else {
+            todos = groupId != null
+                    ? todoRepository.findSliceInGroupAfter(username, groupId, after.isCompleted(),
+                            after.getCreatedAt(), after.getId(), limit)
+                    : todoRepository.findSliceAfter(username, after.isCompleted(),
+                            after.getCreatedAt(), after.getId(), limit);
+            // The open rows ran out inside this slice, it continues with the first completed rows
+            if (!after.isCompleted() && todos.size() < limit.max()) {
+                Limit rest = Limit.of(limit.max() - todos.size());
+                List<TodoSummary> completed = groupId != null
+                        ? todoRepository.findSliceInGroupByCompleted(username, groupId, true, rest)
+                        : todoRepository.findSliceByCompleted(username, true, rest);
+                todos = new ArrayList<>(todos);
+                todos.addAll(completed);
+            }
+        }
+
+        String nextCursor = null;
+        if (todos.size() > size) {
+            todos = todos.subList(0, size);
+            nextCursor = TodoCursor.of(todos.get(size - 1)).encode();
+        }
+        return new CursorPage<>(todos, size, nextCursor);
+    }
+
+    // Ranked search over title and description, falls back to a title substring match when no word matches
+    @Transactional(readOnly = true)
+    public CursorPage<TodoSummary> search(String username, Long groupId, String query, String cursor, int size) {
+        if (size < 1 || size > 100) {
+            throw new IllegalArgumentException("Size must be between 1 and 100.");
+        }
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must be between 1 and " + MAX_QUERY_LENGTH + " characters.");
+        }
+        String text = query.trim();
+        String tsQuery = toPrefixTsQuery(text);
+        String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+
+        // Fetch one extra hit to learn whether another slice follows
+        int limit = size + 1;
+        boolean fallback = after != null && after.isFallback();
+        List<TodoSearchHit> hits;
+        if (after == null) {
+            hits = tsQuery.isEmpty() ? List.of() : todoRepository.searchFirst(username, groupId, tsQuery, limit);
+            if (hits.isEmpty()) {
+                fallback = true;
+                hits = todoRepository.searchSimilarFirst(username, groupId, text, pattern, limit);
+            }
+        } else if (fallback) {
+            hits = todoRepository.searchSimilarAfter(username, groupId, text, pattern, after.getRank(), after.getId(), limit);
+        } else {
+            hits = todoRepository.searchAfter(username, groupId, tsQuery, after.getRank(), after.getId(), limit);
+        }
+
+        String nextCursor = null;
+        if (hits.size() > size) {
+            hits = hits.subList(0, size);
+            TodoSearchHit last = hits.get(size - 1);
+            nextCursor = new SearchCursor(fallback, last.getRank(), last.getId()).encode();
+        }
+        // Load the rows of this slice only, then restore the rank order
+        Map<Long, TodoSummary> rows = todoRepository.findSummariesByIdIn(hits.stream().map(TodoSearchHit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(TodoSummary::getId, Function.identity()));
+        List<TodoSummary> todos = hits.stream()
+                .map(hit -> rows.get(hit.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+        return new CursorPage<>(todos, size, nextCursor);
+    }
+
+    // Every word becomes a prefix term, "buy mil" matches "buy milk"
+    private static String toPrefixTsQuery(String text) {
+        StringBuilder tsQuery = new StringBuilder();
+        for (String word : text.split("\\s+")) {
+            String term = word.replaceAll("[^\\p{L}\\p{N}]", "");
+            if (term.isEmpty()) {
+                continue;
+            }
+            if (!tsQuery.isEmpty()) {
+                tsQuery.append(" & ");
+            }
+            tsQuery.append(term).append(":*");
         }
+        return tsQuery.toString();
+    }
 
-        return todoRepository.findByCreatedBy(username, sortedPageable);
+    @Transactional(readOnly = true)
+    public Page<TodoSummary> getAllByDeadline(Pageable pageable, String username) {
+        String key = pageKey(username, "deadline", pageable.getPageNumber(), pageable.getPageSize());
+        return todoPages.get(key, () -> loadAllByDeadline(pageable, username));
     }
 
-    public Page<Todo> getAllByDeadline(Pageable pageable, String username) {
+    private Page<TodoSummary> loadAllByDeadline(Pageable pageable, String username) {
         Sort sort = Sort.by(Sort.Order.desc("deadline"),
                 Sort.Order.desc("createdAt"));
         Pageable sortedPageable = PageRequest.of(
@@ -55,45 +226,405 @@ public class TodoService {
                 pageable.getPageSize(),
                 sort
         );
-        return todoRepository.findAllByDeadlineIsNotNull(pageable);
+        return todoRepository.findSummariesWithDeadline(username, sortedPageable);
+    }
+
+    // Todos due within the next given days, nearest deadline first
+    // Series are expanded into their occurrences inside the window, minus those replaced by exception rows
+    @Transactional(readOnly = true)
+    public Page<TodoSummary> getUpcomingByDeadline(Pageable pageable, String username, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Days must be positive.");
+        }
+        Sort sort = Sort.by(Sort.Order.asc("deadline"),
+                Sort.Order.asc("createdAt"));
+        Pageable sortedPageable = PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                sort
+        );
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = now.plusDays(days);
+        List<TodoSummary> series = todoRepository.findOpenSeries(username, to);
+        if (series.isEmpty()) {
+            return todoRepository.findSummariesWithDeadlineBetween(username, now, to, sortedPageable);
+        }
+
+        List<TodoSummary> occurrences = expandOccurrences(series, now, to);
+        // The page can hold rows up to its end from either source, so read the stored rows from the start
+        int end = (int) Math.min(sortedPageable.getOffset() + sortedPageable.getPageSize(), Integer.MAX_VALUE);
+        Page<TodoSummary> stored = todoRepository.findSummariesWithDeadlineBetween(username, now, to,
+                PageRequest.of(0, end, sort));
+        List<TodoSummary> merged = new ArrayList<>(stored.getContent());
+        merged.addAll(occurrences);
+        merged.sort(Comparator.comparing(TodoSummary::getDeadline)
+                .thenComparing(TodoSummary::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+        int from = (int) Math.min(sortedPageable.getOffset(), merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, Math.min(end, merged.size()))),
+                sortedPageable, stored.getTotalElements() + occurrences.size());
     }
 
-    // Get by ID
-    public Todo getTodoById(Long id) {
-        return todoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Todo not found with ID:" + id));
+    // Occurrences of the series inside [from, to], without those already stored as exception rows
+    private List<TodoSummary> expandOccurrences(List<TodoSummary> series, LocalDateTime from, LocalDateTime to) {
+        Set<String> replaced = todoRepository.findOccurrencesBetween(
+                        series.stream().map(TodoSummary::getId).toList(), from, to)
+                .stream()
+                .map(ref -> ref.getRecurrenceParentId() + "@" + ref.getOccurrenceDate())
+                .collect(Collectors.toSet());
+        List<TodoSummary> occurrences = new ArrayList<>();
+        for (TodoSummary todo : series) {
+            RecurrenceRule rule;
+            try {
+                rule = RecurrenceRule.parse(todo.getRecurrenceRule());
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping series {} with unreadable rule: {}", todo.getId(), e.getMessage());
+                continue;
+            }
+            for (LocalDateTime date : rule.occurrences(todo.getDeadline(), from, to.plusNanos(1),
+                    RecurrenceRule.MAX_OCCURRENCES)) {
+                if (!replaced.contains(todo.getId() + "@" + date)) {
+                    occurrences.add(TodoSummary.occurrence(todo, date));
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    // Get by ID, the full entity including description
+    @Transactional(readOnly = true)
+    public Todo getTodoById(String username, Long id) {
+        return todoRepository.findByIdAndCreatedBy(id, username)
+                .orElseThrow(() -> new NoSuchElementException("Todo not found with ID:" + id));
     }
 
     // Create
+    @Transactional
     public Todo addTodo(String username, Todo todo) {
         todo.setCreatedBy(username);
+        todo.setRecurrenceRule(normalizeRule(todo.getRecurrenceRule(), todo.getDeadline()));
         if (todo.getGroup() != null && todo.getGroup().getId() != null) {
             todo.setGroup(groupRepository.getReferenceById(todo.getGroup().getId()));
         }
-        return todoRepository.save(todo);
+        Todo saved = todoRepository.save(todo);
+        refreshChangeSeqs(List.of(saved));
+        userVersionService.bump(username, ResourceType.TODO, List.of(saved.getId()), List.of());
+        return saved;
     }
 
-    // Toggle isCompleted
+    // Toggle isCompleted, an archived todo is moved back uncompleted
+    // Toggling a series completes the whole series, single occurrences go through toggleOccurrence
+    @Transactional
     public Todo toggleCompleted(String username, Long id) {
-        Todo existingTodo = todoRepository.findByIdAndCreatedBy(id, username)
+        Optional<Todo> toggled = todoRepository.toggleCompleted(id, username);
+        if (toggled.isPresent()) {
+            userVersionService.bump(username, ResourceType.TODO, List.of(id), List.of());
+            return toggled.get();
+        }
+        // A restored series comes with its exception rows
+        List<Todo> restored = todoRepository.restoreFromArchive(id, username);
+        Todo todo = restored.stream()
+                .filter(candidate -> candidate.getId().equals(id))
+                .findFirst()
                 .orElseThrow(() -> new NoSuchElementException("Can not found existing todo."));
-        existingTodo.setIsCompleted(!existingTodo.getIsCompleted());
-        return todoRepository.save(existingTodo);
+        userVersionService.bump(username, ResourceType.TODO, restored.stream().map(Todo::getId).toList(), List.of());
+        return todo;
     }
 
-    // Modify
+    // Modify, createdBy and createdAt are never overwritten by the request body
+    @Transactional
     public Todo updateTodo(String username, Todo todo) {
-        if (!todoRepository.existsByIdAndCreatedBy(todo.getId(), username)) {
-            throw new NoSuchElementException("Can not found existing todo.");
-        }
+        Long groupId = todo.getGroup() != null ? todo.getGroup().getId() : null;
+        todo.setRecurrenceRule(normalizeRule(todo.getRecurrenceRule(), todo.getDeadline()));
+        Long changeSeq = todoRepository.updateByIdAndCreatedBy(todo.getId(), username, todo.getTitle(),
+                        todo.getDescription(), Boolean.TRUE.equals(todo.getIsCompleted()), todo.getDeadline(), groupId,
+                        todo.getRecurrenceRule())
+                .orElseThrow(() -> new NoSuchElementException("Can not found existing todo."));
         todo.setCreatedBy(username);
-        return todoRepository.save(todo);
+        todo.setChangeSeq(changeSeq);
+        userVersionService.bump(username, ResourceType.TODO, List.of(todo.getId()), List.of());
+        return todo;
     }
 
-    // Delete
+    // Delete, a series is deleted with its exception rows
+    @Transactional
     public void deleteTodo(String username, Long id) {
-        Todo existingTodo = todoRepository.findByIdAndCreatedBy(id, username)
-                .orElseThrow(() -> new NoSuchElementException("Can not found existing todo."));
-        todoRepository.delete(existingTodo);
+        List<Long> deleted = todoRepository.deleteByIdAndCreatedBy(id, username);
+        if (deleted.isEmpty()) {
+            throw new NoSuchElementException("Can not found existing todo.");
+        }
+        userVersionService.bump(username, ResourceType.TODO, List.of(), deleted);
+    }
+
+    // Complete or reopen one occurrence of a series, the first toggle stores it as a completed exception row
+    @Transactional
+    public Todo toggleOccurrence(String username, Long seriesId, LocalDateTime occurrenceDate) {
+        Todo series = getSeries(username, seriesId, occurrenceDate);
+        Todo exception = todoRepository.findOccurrence(seriesId, occurrenceDate, username)
+                .map(existing -> {
+                    existing.setIsCompleted(!Boolean.TRUE.equals(existing.getIsCompleted()));
+                    return existing;
+                })
+                .orElseGet(() -> {
+                    Todo created = newException(series, occurrenceDate);
+                    created.setIsCompleted(true);
+                    return todoRepository.save(created);
+                });
+        refreshChangeSeqs(List.of(exception));
+        userVersionService.bump(username, ResourceType.TODO, List.of(exception.getId()), List.of());
+        return exception;
+    }
+
+    // Edit one occurrence of a series, stored as an exception row, the series and its other occurrences stay as they are
+    @Transactional
+    public Todo updateOccurrence(String username, Long seriesId, LocalDateTime occurrenceDate, Todo todo) {
+        if (todo.getTitle() == null) {
+            throw new IllegalArgumentException("Missing title.");
+        }
+        if (todo.getRecurrenceRule() != null && !todo.getRecurrenceRule().isBlank()) {
+            throw new IllegalArgumentException("An occurrence can not have its own recurrence rule.");
+        }
+        Todo series = getSeries(username, seriesId, occurrenceDate);
+        Todo exception = todoRepository.findOccurrence(seriesId, occurrenceDate, username)
+                .orElseGet(() -> newException(series, occurrenceDate));
+        exception.setTitle(todo.getTitle());
+        exception.setDescription(todo.getDescription());
+        exception.setIsCompleted(Boolean.TRUE.equals(todo.getIsCompleted()));
+        exception.setDeadline(todo.getDeadline());
+        exception.setGroup(todo.getGroup() != null && todo.getGroup().getId() != null
+                ? groupRepository.getReferenceById(todo.getGroup().getId())
+                : null);
+        Todo saved = todoRepository.save(exception);
+        refreshChangeSeqs(List.of(saved));
+        userVersionService.bump(username, ResourceType.TODO, List.of(saved.getId()), List.of());
+        return saved;
+    }
+
+    private Todo getSeries(String username, Long seriesId, LocalDateTime occurrenceDate) {
+        Todo series = todoRepository.findByIdAndCreatedBy(seriesId, username)
+                .filter(todo -> todo.getRecurrenceRule() != null)
+                .orElseThrow(() -> new NoSuchElementException("Can not found existing series."));
+        if (occurrenceDate == null
+                || !RecurrenceRule.parse(series.getRecurrenceRule()).occursAt(series.getDeadline(), occurrenceDate)) {
+            throw new IllegalArgumentException("Series " + seriesId + " has no occurrence at " + occurrenceDate + ".");
+        }
+        return series;
+    }
+
+    // Copy of the series for one occurrence, without a rule of its own
+    private static Todo newException(Todo series, LocalDateTime occurrenceDate) {
+        Todo exception = new Todo();
+        exception.setCreatedBy(series.getCreatedBy());
+        exception.setGroup(series.getGroup());
+        exception.setTitle(series.getTitle());
+        exception.setDescription(series.getDescription());
+        exception.setCreatedAt(series.getCreatedAt());
+        exception.setDeadline(occurrenceDate);
+        exception.setRecurrenceParentId(series.getId());
+        exception.setOccurrenceDate(occurrenceDate);
+        return exception;
+    }
+
+    // Canonical form of a rule, null for none, a series needs a deadline as its first occurrence
+    private static String normalizeRule(String rule, LocalDateTime deadline) {
+        if (rule == null || rule.isBlank()) {
+            return null;
+        }
+        if (deadline == null) {
+            throw new IllegalArgumentException("A recurring todo needs a deadline.");
+        }
+        return RecurrenceRule.parse(rule).toString();
+    }
+
+    // Place a todo between two neighbours of its group, only the moved row is written
+    @Transactional
+    public Todo moveTodo(String username, TodoMoveRequest request) {
+        List<Long> ids = new ArrayList<>();
+        ids.add(request.getId());
+        if (request.getPreviousId() != null) {
+            ids.add(request.getPreviousId());
+        }
+        if (request.getNextId() != null) {
+            ids.add(request.getNextId());
+        }
+        Map<Long, Todo> todos = todoRepository.findAllByIdInAndCreatedBy(ids, username).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        if (!todos.keySet().containsAll(ids)) {
+            throw new NoSuchElementException("Can not found existing todo.");
+        }
+
+        Todo moved = todos.get(request.getId());
+        Todo previous = todos.get(request.getPreviousId());
+        Todo next = todos.get(request.getNextId());
+        if (moved.getGroup() == null) {
+            throw new IllegalArgumentException("Only todos inside a group can be reordered.");
+        }
+        Long groupId = moved.getGroup().getId();
+        for (Todo neighbour : new Todo[]{previous, next}) {
+            if (neighbour != null && (neighbour.getGroup() == null || !groupId.equals(neighbour.getGroup().getId()))) {
+                throw new IllegalArgumentException("Neighbours must be in the same group.");
+            }
+        }
+
+        Long lower = previous != null ? previous.getOrderKey() : null;
+        Long upper = next != null ? next.getOrderKey() : null;
+        Long orderKey = OrderKeys.between(lower, upper);
+        if (orderKey == null) {
+            // No room left between the neighbours, respread the group and pick again
+            orderKeyRebalancer.rebalanceTodos(username, groupId);
+            lower = previous != null ? previous.getOrderKey() : null;
+            upper = next != null ? next.getOrderKey() : null;
+            orderKey = OrderKeys.between(lower, upper);
+            moved.setOrderKey(orderKey);
+        } else {
+            // Dynamic update, flushed as a single-column UPDATE of the moved row
+            moved.setOrderKey(orderKey);
+            if (OrderKeys.isCrowded(lower, orderKey, upper)) {
+                orderKeyRebalancer.rebalanceTodosLater(username, groupId);
+            }
+            userVersionService.bump(username, ResourceType.TODO, List.of(moved.getId()), List.of());
+        }
+        refreshChangeSeqs(List.of(moved));
+        return moved;
+    }
+
+    // change_seq is stamped by a trigger, not read back by Hibernate since @Generated would turn off insert batching
+    // The query flushes the pending writes first, so it sees the stamped values; callers are read-write
+    // transactions, so it runs on their primary connection, never on a replica that has not replayed the write
+    private void refreshChangeSeqs(Collection<Todo> todos) {
+        Map<Long, Long> changeSeqs = todoRepository.findChangeSeqsByIdIn(todos.stream().map(Todo::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(ChangeSeqRef::getId, ChangeSeqRef::getChangeSeq));
+        todos.forEach(todo -> todo.setChangeSeq(changeSeqs.get(todo.getId())));
+    }
+
+    // Apply a list of operations in one transaction, statements are flushed in JDBC batches before change_seq is read back
+    @Transactional
+    public List<TodoBatchResult> applyBatch(String username, List<TodoBatchOperation> operations) {
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " operations.");
+        }
+
+        // Check ownership of every referenced todo with a single query
+        Collection<Long> ids = operations.stream()
+                .filter(operation -> operation.getType() != BatchOperationType.CREATE)
+                .map(TodoBatchOperation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Todo> owned = ids.isEmpty() ? new HashMap<>() : todoRepository.findAllByIdInAndCreatedBy(ids, username)
+                .stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+
+        List<TodoBatchResult> results = new ArrayList<>(operations.size());
+        List<Todo> deleted = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            TodoBatchOperation operation = operations.get(i);
+            if (operation.getType() == null) {
+                results.add(new TodoBatchResult(i, operation.getId(), BatchResultStatus.INVALID, "Missing type."));
+                continue;
+            }
+            if (operation.getType() == BatchOperationType.CREATE) {
+                Todo todo = operation.getTodo();
+                if (todo == null || todo.getTitle() == null) {
+                    results.add(new TodoBatchResult(i, null, BatchResultStatus.INVALID, "Missing title."));
+                    continue;
+                }
+                todo.setId(null);
+                todo.setCreatedBy(username);
+                try {
+                    todo.setRecurrenceRule(normalizeRule(todo.getRecurrenceRule(), todo.getDeadline()));
+                } catch (IllegalArgumentException e) {
+                    results.add(new TodoBatchResult(i, null, BatchResultStatus.INVALID, e.getMessage()));
+                    continue;
+                }
+                if (todo.getGroup() != null && todo.getGroup().getId() != null) {
+                    todo.setGroup(groupRepository.getReferenceById(todo.getGroup().getId()));
+                }
+                // The pooled sequence assigns the id on persist, the insert itself waits for the batch flush
+                Todo saved = todoRepository.save(todo);
+                results.add(new TodoBatchResult(i, saved.getId(), BatchResultStatus.OK, null));
+                continue;
+            }
+
+            Todo existingTodo = owned.get(operation.getId());
+            if (existingTodo == null) {
+                results.add(new TodoBatchResult(i, operation.getId(), BatchResultStatus.NOT_FOUND, "Can not found existing todo."));
+                continue;
+            }
+            if (operation.getChangeSeq() != null && !operation.getChangeSeq().equals(existingTodo.getChangeSeq())) {
+                // Written since the client last saw it, the client merges with the current row from sync
+                results.add(new TodoBatchResult(i, existingTodo.getId(), BatchResultStatus.CONFLICT, "Todo has changed."));
+                continue;
+            }
+            switch (operation.getType()) {
+                case UPDATE -> {
+                    Todo todo = operation.getTodo();
+                    if (todo == null || todo.getTitle() == null) {
+                        results.add(new TodoBatchResult(i, existingTodo.getId(), BatchResultStatus.INVALID, "Missing title."));
+                        continue;
+                    }
+                    String rule;
+                    try {
+                        rule = normalizeRule(todo.getRecurrenceRule(), todo.getDeadline());
+                    } catch (IllegalArgumentException e) {
+                        results.add(new TodoBatchResult(i, existingTodo.getId(), BatchResultStatus.INVALID, e.getMessage()));
+                        continue;
+                    }
+                    if (rule != null && existingTodo.getRecurrenceParentId() != null) {
+                        results.add(new TodoBatchResult(i, existingTodo.getId(), BatchResultStatus.INVALID,
+                                "An occurrence can not have its own recurrence rule."));
+                        continue;
+                    }
+                    existingTodo.setRecurrenceRule(rule);
+                    existingTodo.setTitle(todo.getTitle());
+                    existingTodo.setDescription(todo.getDescription());
+                    existingTodo.setIsCompleted(Boolean.TRUE.equals(todo.getIsCompleted()));
+                    existingTodo.setDeadline(todo.getDeadline());
+                    existingTodo.setGroup(todo.getGroup() != null && todo.getGroup().getId() != null
+                            ? groupRepository.getReferenceById(todo.getGroup().getId())
+                            : null);
+                }
+                case COMPLETE -> existingTodo.setIsCompleted(operation.getCompleted() == null || operation.getCompleted());
+                case DELETE -> {
+                    deleted.add(existingTodo);
+                    owned.remove(existingTodo.getId());
+                }
+                default -> {
+                }
+            }
+            results.add(new TodoBatchResult(i, existingTodo.getId(), BatchResultStatus.OK, null));
+        }
+        // Updates of managed entities are picked up by dirty checking at flush
+        List<Long> deletedIds = new ArrayList<>(deleted.stream().map(Todo::getId).toList());
+        List<Long> deletedSeriesIds = deleted.stream()
+                .filter(todo -> todo.getRecurrenceRule() != null)
+                .map(Todo::getId)
+                .toList();
+        if (!deletedSeriesIds.isEmpty()) {
+            deletedIds.addAll(todoRepository.deleteOccurrencesOf(deletedSeriesIds, deletedIds, username));
+        }
+        todoRepository.deleteAll(deleted);
+
+        List<Long> upsertedIds = results.stream()
+                .filter(result -> result.getStatus() == BatchResultStatus.OK && !deletedIds.contains(result.getId()))
+                .map(TodoBatchResult::getId)
+                .distinct()
+                .toList();
+        if (!upsertedIds.isEmpty()) {
+            Map<Long, Long> changeSeqs = todoRepository.findChangeSeqsByIdIn(upsertedIds).stream()
+                    .collect(Collectors.toMap(ChangeSeqRef::getId, ChangeSeqRef::getChangeSeq));
+            results.forEach(result -> result.setChangeSeq(changeSeqs.get(result.getId())));
+        }
+        userVersionService.bump(username, ResourceType.TODO, upsertedIds, deletedIds);
+        return results;
+    }
+
+    // Cache key of a listing, the version makes every entry stale once the user mutates a todo
+    private String pageKey(String username, Object... parts) {
+        StringBuilder key = new StringBuilder(username)
+                .append(':').append(userVersionService.current(username, ResourceType.TODO));
+        for (Object part : parts) {
+            key.append(':').append(part);
+        }
+        return key.toString();
     }
 }
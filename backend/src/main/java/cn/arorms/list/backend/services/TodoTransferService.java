@@ -0,0 +1,475 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.ImportResult;
+import cn.arorms.list.backend.pojos.dtos.TransferRecord;
+import cn.arorms.list.backend.pojos.entities.Group;
+import cn.arorms.list.backend.pojos.entities.Todo;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import cn.arorms.list.backend.repositories.GroupRepository;
+import cn.arorms.list.backend.repositories.TodoRepository;
+import cn.arorms.list.backend.utils.OrderKeys;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * TodoTransferService
+ * Streaming export and import of a user's todos and groups as NDJSON or CSV.
+ * Export reads through a database cursor, import saves in chunks of CHUNK_SIZE, one transaction each,
+ * so memory stays flat whatever the number of rows.
+ * Todos are exported in list order and imported todos keep the order of their lines.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@RegisterReflectionForBinding(TransferRecord.class)
+@Service
+public class TodoTransferService {
+    // A multiple of hibernate.jdbc.batch_size
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_ERRORS = 20;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final String[] CSV_HEADER = {"id", "group", "title", "description", "completed", "createdAt", "deadline"};
+    // Spreadsheets evaluate cells starting with these as formulas, such cells are written behind a single quote
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    private static final char BOM = '\uFEFF';
+
+    private final TodoRepository todoRepository;
+    private final GroupRepository groupRepository;
+    private final GroupService groupService;
+    private final UserVersionService userVersionService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    // Exports stream on the async executor after the request thread returned, outside ConcurrencyLimitFilter,
+    // and hold a pooled connection for up to spring.mvc.async.request-timeout, so they are capped on their own
+    private final Semaphore exportPermits;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TodoTransferService(TodoRepository todoRepository, GroupRepository groupRepository, GroupService groupService,
+                               UserVersionService userVersionService, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${application.transfer.max-concurrent-exports:3}") int maxConcurrentExports) {
+        this.todoRepository = todoRepository;
+        this.groupRepository = groupRepository;
+        this.groupService = groupService;
+        this.userVersionService = userVersionService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    // False when max-concurrent-exports are already running, otherwise finishExport must follow once written
+    public boolean tryStartExport() {
+        return exportPermits.tryAcquire();
+    }
+
+    public void finishExport() {
+        exportPermits.release();
+    }
+
+    // Group lines first, then one line per todo
+    public void exportNdjson(String username, OutputStream out) throws IOException {
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            export(username,
+                    group -> writer.write(new TransferRecord(TransferRecord.GROUP, group.getId(), null, group.getName(),
+                            null, group.getDescription(), null, null, null)),
+                    todo -> writer.write(new TransferRecord(TransferRecord.TODO, todo.getId(),
+                            todo.getGroup() != null ? todo.getGroup().getId() : null, null, todo.getTitle(),
+                            todo.getDescription(), Boolean.TRUE.equals(todo.getIsCompleted()), todo.getCreatedAt(),
+                            todo.getDeadline())));
+        }
+    }
+
+    // Todos only, the group column holds the group name
+    public void exportCsv(String username, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRow(writer, CSV_HEADER);
+        export(username, group -> { }, todo -> writeCsvRow(writer, new String[]{
+                String.valueOf(todo.getId()),
+                todo.getGroup() != null ? todo.getGroup().getName() : null,
+                todo.getTitle(),
+                todo.getDescription(),
+                String.valueOf(Boolean.TRUE.equals(todo.getIsCompleted())),
+                todo.getCreatedAt() != null ? todo.getCreatedAt().toString() : null,
+                todo.getDeadline() != null ? todo.getDeadline().toString() : null
+        }));
+        writer.flush();
+    }
+
+    private void export(String username, IoConsumer<Group> groupSink, IoConsumer<Todo> todoSink) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    for (Group group : groupRepository.findByCreatedBy(username, Sort.by("id"))) {
+                        groupSink.accept(group);
+                    }
+                    try (Stream<Todo> todos = todoRepository.streamByCreatedBy(username)) {
+                        Iterator<Todo> iterator = todos.iterator();
+                        while (iterator.hasNext()) {
+                            Todo todo = iterator.next();
+                            todoSink.accept(todo);
+                            // Written out, keep the persistence context from growing with the export
+                            entityManager.detach(todo);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Group lines are matched to existing groups by name, todo lines follow the groupId of their group line
+    public ImportResult importNdjson(String username, InputStream in) throws IOException {
+        ImportBatch batch = new ImportBatch(username);
+        Map<Long, Long> groupIds = new HashMap<>();
+        BufferedReader reader = openReader(in);
+        StringBuilder line = new StringBuilder();
+        long lineNumber = 0;
+        while (readLine(reader, line)) {
+            lineNumber++;
+            if (line.toString().isBlank()) {
+                continue;
+            }
+            TransferRecord record;
+            try {
+                record = objectMapper.readValue(line.toString(), TransferRecord.class);
+            } catch (JsonProcessingException e) {
+                batch.reject(lineNumber, "Invalid JSON.");
+                continue;
+            }
+            if (TransferRecord.GROUP.equals(record.getType())) {
+                Long groupId = batch.resolveGroup(lineNumber, record.getName(), record.getDescription());
+                if (groupId != null && record.getId() != null) {
+                    groupIds.put(record.getId(), groupId);
+                }
+            } else if (record.getType() == null || TransferRecord.TODO.equals(record.getType())) {
+                Long groupId = record.getGroupId() != null ? groupIds.get(record.getGroupId()) : null;
+                batch.add(lineNumber, record.getTitle(), record.getDescription(), record.getCompleted(),
+                        record.getCreatedAt(), record.getDeadline(), groupId);
+            } else {
+                batch.reject(lineNumber, "Unknown type.");
+            }
+        }
+        return batch.finish();
+    }
+
+    // Needs a header row with at least a title column, groups are matched or created by name
+    public ImportResult importCsv(String username, InputStream in) throws IOException {
+        CsvReader csv = new CsvReader(openReader(in));
+        List<String> header = csv.next();
+        if (header == null) {
+            return new ImportResult(0, 0, 0, List.of());
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IllegalArgumentException("CSV header must contain a title column.");
+        }
+
+        ImportBatch batch = new ImportBatch(username);
+        List<String> row;
+        while ((row = csv.next()) != null) {
+            long lineNumber = csv.recordLine();
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                String groupName = column(row, columns, "group");
+                Long groupId = groupName == null || groupName.isBlank() ? null
+                        : batch.resolveGroup(lineNumber, groupName.trim(), null);
+                String completed = column(row, columns, "completed");
+                batch.add(lineNumber, column(row, columns, "title"), column(row, columns, "description"),
+                        completed != null && List.of("true", "1", "yes").contains(completed.trim().toLowerCase(Locale.ROOT)),
+                        parseDateTime(column(row, columns, "createdat")), parseDateTime(column(row, columns, "deadline")),
+                        groupId);
+            } catch (DateTimeParseException e) {
+                batch.reject(lineNumber, "Invalid date.");
+            }
+        }
+        return batch.finish();
+    }
+
+    // Spreadsheets save UTF-8 with a byte order mark, it would otherwise stick to the first header or line
+    static BufferedReader openReader(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != BOM) {
+            reader.reset();
+        }
+        return reader;
+    }
+
+    // Undoes the quote writeCsvRow puts in front of formula-like cells
+    private static String column(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index);
+        return value.length() > 1 && value.charAt(0) == '\'' && FORMULA_PREFIXES.indexOf(value.charAt(1)) >= 0
+                ? value.substring(1)
+                : value;
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.length() == 10 ? LocalDate.parse(trimmed).atStartOfDay() : LocalDateTime.parse(trimmed);
+    }
+
+    /**
+     * Todos of one import waiting for the next chunk, plus the counters of the result.
+     */
+    private final class ImportBatch {
+        private final String username;
+        private final Map<String, Long> groupsByName = new HashMap<>();
+        private final List<Todo> pending = new ArrayList<>(CHUNK_SIZE);
+        private final List<Long> pendingGroupIds = new ArrayList<>(CHUNK_SIZE);
+        private final List<String> errors = new ArrayList<>();
+        // Consecutive keys from the current new-todo key, the todos of one group keep the order of their lines
+        private long nextOrderKey = OrderKeys.forNewTodo();
+        private long imported;
+        private long groupsCreated;
+        private long rejected;
+
+        private ImportBatch(String username) {
+            this.username = username;
+            for (Group group : groupRepository.findByCreatedBy(username, Sort.by("id"))) {
+                groupsByName.putIfAbsent(group.getName(), group.getId());
+            }
+        }
+
+        private Long resolveGroup(long lineNumber, String name, String description) {
+            if (name == null || name.isBlank() || name.length() > MAX_COLUMN_LENGTH) {
+                reject(lineNumber, "Group name must be between 1 and " + MAX_COLUMN_LENGTH + " characters.");
+                return null;
+            }
+            return groupsByName.computeIfAbsent(name, key -> {
+                groupsCreated++;
+                return groupService.addGroup(username, Group.builder().name(key).description(description).build()).getId();
+            });
+        }
+
+        private void add(long lineNumber, String title, String description, Boolean completed,
+                         LocalDateTime createdAt, LocalDateTime deadline, Long groupId) {
+            if (title == null || title.isBlank() || title.length() > MAX_COLUMN_LENGTH) {
+                reject(lineNumber, "Title must be between 1 and " + MAX_COLUMN_LENGTH + " characters.");
+                return;
+            }
+            if (description != null && description.length() > MAX_COLUMN_LENGTH) {
+                reject(lineNumber, "Description must be at most " + MAX_COLUMN_LENGTH + " characters.");
+                return;
+            }
+            Todo todo = new Todo();
+            todo.setCreatedBy(username);
+            todo.setTitle(title);
+            todo.setDescription(description == null || description.isEmpty() ? null : description);
+            todo.setIsCompleted(Boolean.TRUE.equals(completed));
+            if (createdAt != null) {
+                todo.setCreatedAt(createdAt);
+            }
+            todo.setDeadline(deadline);
+            todo.setOrderKey(nextOrderKey++);
+            pending.add(todo);
+            pendingGroupIds.add(groupId);
+            if (pending.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + message);
+            }
+        }
+
+        // One transaction per chunk, inserts go out in JDBC batches on commit
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < pending.size(); i++) {
+                    Long groupId = pendingGroupIds.get(i);
+                    if (groupId != null) {
+                        pending.get(i).setGroup(groupRepository.getReferenceById(groupId));
+                    }
+                }
+                todoRepository.saveAll(pending);
+            });
+            imported += pending.size();
+            pending.clear();
+            pendingGroupIds.clear();
+        }
+
+        private ImportResult finish() {
+            flush();
+            if (imported > 0) {
+                userVersionService.bump(username, ResourceType.TODO);
+            }
+            return new ImportResult(imported, groupsCreated, rejected, errors);
+        }
+    }
+
+    // Reads one line into buffer without its terminator, false at end of input
+    static boolean readLine(Reader reader, StringBuilder buffer) throws IOException {
+        buffer.setLength(0);
+        int c;
+        boolean read = false;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (c == '\n') {
+                return true;
+            }
+            if (c != '\r') {
+                if (buffer.length() == MAX_LINE_LENGTH) {
+                    throw new IllegalArgumentException("Line longer than " + MAX_LINE_LENGTH + " characters.");
+                }
+                buffer.append((char) c);
+            }
+        }
+        return read;
+    }
+
+    static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 reader, quoted fields may contain separators, quotes and line breaks.
+     */
+    static final class CsvReader {
+        private final BufferedReader reader;
+        private long line = 1;
+        private long recordLine;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        // Line the last record returned by next started on, counted from 1
+        long recordLine() {
+            return recordLine;
+        }
+
+        // Fields of the next record, null at end of input
+        List<String> next() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean read = false;
+            int length = 0;
+            recordLine = line;
+            int c;
+            while ((c = reader.read()) != -1) {
+                read = true;
+                if (++length > MAX_LINE_LENGTH) {
+                    throw new IllegalArgumentException("CSV record at line " + recordLine + " is too long.");
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoConsumer<T> {
+        void accept(T value) throws IOException;
+    }
+}
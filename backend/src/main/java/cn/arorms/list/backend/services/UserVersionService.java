@@ -0,0 +1,121 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.ChangeEvent;
+import cn.arorms.list.backend.pojos.enums.ResourceType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user data version, bumped on every mutation.
+ * Cache keys embed the version, so a bump makes every cached entry of that user and type unreachable.
+ * Each bump is published as a ChangeEvent once committed.
+ * Counters are per node, ClusterEventBus applies the bumps of other nodes.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+@Service
+public class UserVersionService {
+    private final Cache<String, AtomicLong> versions = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+    // Last committed change per user, read replicas are skipped for a while after it
+    private final Cache<String, Long> lastChangeNanos = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserVersionService(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public long current(String username, ResourceType type) {
+        return versions.get(key(username, type), k -> new AtomicLong(initialVersion())).get();
+    }
+
+    // Strong ETag for every listing of this user and type, the username hash keeps tags of different users apart
+    public String etag(String username, ResourceType type) {
+        return "\"" + Long.toHexString(current(username, type)) + "-" + Integer.toHexString(username.hashCode()) + "\"";
+    }
+
+    // Whether the user changed anything within the window, on this node or, with ClusterEventBus, on another one
+    public boolean changedWithin(String username, Duration window) {
+        Long changed = lastChangeNanos.getIfPresent(username);
+        return changed != null && System.nanoTime() - changed < window.toNanos();
+    }
+
+    // Change with unknown ids, subscribers reload the whole type
+    public void bump(String username, ResourceType... types) {
+        afterCommit(() -> {
+            for (ResourceType type : types) {
+                eventPublisher.publishEvent(new ChangeEvent(username, type, increment(username, type),
+                        List.of(), List.of(), true, false));
+            }
+        });
+    }
+
+    public void bump(String username, ResourceType type, Collection<Long> upserted, Collection<Long> deleted) {
+        List<Long> upsertedIds = List.copyOf(upserted);
+        List<Long> deletedIds = List.copyOf(deleted);
+        afterCommit(() -> eventPublisher.publishEvent(new ChangeEvent(username, type, increment(username, type),
+                upsertedIds, deletedIds, false, false)));
+    }
+
+    // Change committed on another node, moves the local version past both its own and the remote one
+    public void applyRemote(String username, ResourceType type, long version, List<Long> upserted, List<Long> deleted,
+                            boolean resync) {
+        lastChangeNanos.put(username, System.nanoTime());
+        long local = versions.get(key(username, type), k -> new AtomicLong(initialVersion()))
+                .accumulateAndGet(version, (current, remote) -> Math.max(current + 1, remote));
+        eventPublisher.publishEvent(new ChangeEvent(username, type, local, upserted, deleted, resync, true));
+    }
+
+    // Changes of other nodes may have been missed, every known counter moves on and subscribers reload
+    public void invalidateAll() {
+        versions.asMap().forEach((key, version) -> {
+            int separator = key.indexOf(':');
+            ResourceType type = ResourceType.valueOf(key.substring(0, separator));
+            eventPublisher.publishEvent(new ChangeEvent(key.substring(separator + 1), type, version.incrementAndGet(),
+                    List.of(), List.of(), true, true));
+        });
+    }
+
+    // Bump once the surrounding transaction commits, readers must never cache uncommitted state under the new version
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Recorded before the version moves, so a reader that sees the new version also skips the replicas
+    private long increment(String username, ResourceType type) {
+        lastChangeNanos.put(username, System.nanoTime());
+        return versions.get(key(username, type), k -> new AtomicLong(initialVersion())).incrementAndGet();
+    }
+
+    // Counters start from the clock, so an evicted or restarted counter never reissues an old version
+    private static long initialVersion() {
+        return System.currentTimeMillis() * 1000;
+    }
+
+    private static String key(String username, ResourceType type) {
+        return type + ":" + username;
+    }
+}
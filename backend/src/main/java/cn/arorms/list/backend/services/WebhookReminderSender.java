@@ -0,0 +1,48 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.Reminder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+
+/**
+ * Posts every reminder as JSON to application.reminder.webhook-url, e.g. a mail or push gateway.
+ */
+@RegisterReflectionForBinding(Reminder.class)
+@Component
+@ConditionalOnProperty(name = "application.reminder.webhook-url")
+public class WebhookReminderSender implements ReminderSender {
+    private static final Logger log = LoggerFactory.getLogger(WebhookReminderSender.class);
+
+    private final RestClient restClient;
+
+    public WebhookReminderSender(RestClient.Builder builder, @Value("${application.reminder.webhook-url}") String webhookUrl,
+                                 @Value("${application.reminder.webhook-timeout:5s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofSeconds(2));
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = builder.baseUrl(webhookUrl).requestFactory(requestFactory).build();
+    }
+
+    @Override
+    public void send(Reminder reminder) {
+        try {
+            restClient.post()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(reminder)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            log.warn("Webhook delivery of reminder for todo {} failed: {}", reminder.getTodoId(), e.getMessage());
+        }
+    }
+}
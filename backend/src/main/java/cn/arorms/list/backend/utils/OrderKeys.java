@@ -0,0 +1,42 @@
+package cn.arorms.list.backend.utils;
+
+/**
+ * Sparse ordering keys for groups and todos.
+ * Keys are spread GAP apart, a move picks a key between its new neighbours and rewrites only the moved row.
+ * @version 1.0 2026-10-18
+ * @author Cacciatore
+ */
+public final class OrderKeys {
+    public static final long GAP = 1L << 16;
+    // A move leaving less room than this schedules a rebalance of the list
+    public static final long MIN_GAP = 1L << 4;
+
+    private OrderKeys() {
+    }
+
+    // Key strictly between lower and upper, null for an open end; null when no key fits anymore
+    public static Long between(Long lower, Long upper) {
+        if (lower == null && upper == null) {
+            return 0L;
+        }
+        if (lower == null) {
+            return upper - GAP;
+        }
+        if (upper == null) {
+            return lower + GAP;
+        }
+        if (upper - lower < 2) {
+            return null;
+        }
+        return lower + (upper - lower) / 2;
+    }
+
+    public static boolean isCrowded(Long lower, long key, Long upper) {
+        return (lower != null && key - lower < MIN_GAP) || (upper != null && upper - key < MIN_GAP);
+    }
+
+    // Newer todos get smaller keys, so ascending order starts with the newest like the default listing
+    public static long forNewTodo() {
+        return -System.currentTimeMillis() * 1024;
+    }
+}
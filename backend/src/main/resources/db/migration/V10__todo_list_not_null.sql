@@ -0,0 +1,12 @@
+-- Keyset listings seek on (is_completed, created_at, id), a NULL in either column made a row unreachable
+-- after the first slice. Both columns always had a value from the application, older rows are backfilled.
+UPDATE todos SET is_completed = false WHERE is_completed IS NULL;
+UPDATE todos SET created_at = now() WHERE created_at IS NULL;
+ALTER TABLE todos ALTER COLUMN is_completed SET DEFAULT false;
+ALTER TABLE todos ALTER COLUMN is_completed SET NOT NULL;
+ALTER TABLE todos ALTER COLUMN created_at SET DEFAULT now();
+ALTER TABLE todos ALTER COLUMN created_at SET NOT NULL;
+
+-- Restored rows go back into todos
+UPDATE todos_archive SET created_at = completed_at WHERE created_at IS NULL;
+ALTER TABLE todos_archive ALTER COLUMN created_at SET NOT NULL;
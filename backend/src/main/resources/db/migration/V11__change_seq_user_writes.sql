@@ -0,0 +1,21 @@
+-- change_seq doubles as the version a client sends back to detect conflicting edits, so writes made by
+-- background jobs keep the previous value: reminded_at (ReminderScheduler), completed_at (trigger of V8) and
+-- order_key when OrderKeyRebalancer respreads a list on its own, marked by the arlist.background_write setting.
+-- search_vector is generated after BEFORE triggers run and is left out of the comparison.
+CREATE OR REPLACE FUNCTION stamp_change_seq() RETURNS trigger AS $$
+DECLARE
+    ignored TEXT[] := ARRAY['change_seq', 'reminded_at', 'completed_at', 'search_vector'];
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        IF current_setting('arlist.background_write', true) = 'on' THEN
+            ignored := array_append(ignored, 'order_key');
+        END IF;
+        IF to_jsonb(NEW) - ignored = to_jsonb(OLD) - ignored THEN
+            NEW.change_seq := OLD.change_seq;
+            RETURN NEW;
+        END IF;
+    END IF;
+    NEW.change_seq := pg_current_xact_id()::text::BIGINT;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
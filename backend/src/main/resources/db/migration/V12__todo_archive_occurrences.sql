@@ -0,0 +1,9 @@
+-- Archived exception rows keep their series and occurrence, restored they replace the same occurrence again.
+-- No foreign key: the series may be archived as well, todos_archive.id and todos.id never overlap.
+ALTER TABLE todos_archive ADD COLUMN IF NOT EXISTS recurrence_parent_id BIGINT;
+ALTER TABLE todos_archive ADD COLUMN IF NOT EXISTS occurrence_date TIMESTAMP(6);
+
+-- Exception rows restored together with their series
+CREATE INDEX IF NOT EXISTS idx_todos_archive_parent
+    ON todos_archive (recurrence_parent_id)
+    WHERE recurrence_parent_id IS NOT NULL;
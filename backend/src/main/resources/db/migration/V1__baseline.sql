@@ -0,0 +1,28 @@
+-- Schema as previously created by hibernate ddl-auto=update
+CREATE TABLE IF NOT EXISTS users (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username          VARCHAR(50)  NOT NULL UNIQUE,
+    password          VARCHAR(100) NOT NULL,
+    email             VARCHAR(100) NOT NULL UNIQUE,
+    role              VARCHAR(255) CHECK (role IN ('USER', 'ADMIN')),
+    registration_date TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS groups (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    order_index INTEGER      NOT NULL,
+    description VARCHAR(255),
+    created_by  VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS todos (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_by   VARCHAR(255),
+    group_id     BIGINT REFERENCES groups (id),
+    title        VARCHAR(255) NOT NULL,
+    description  VARCHAR(255),
+    is_completed BOOLEAN,
+    created_at   TIMESTAMP(6),
+    deadline     TIMESTAMP(6)
+);
@@ -0,0 +1,20 @@
+-- TodoService.getAllByUsername / getSliceByUsername: ORDER BY is_completed, created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_todos_owner_list
+    ON todos (created_by, is_completed, created_at DESC, id DESC);
+
+-- Same ordering filtered by group
+CREATE INDEX IF NOT EXISTS idx_todos_owner_group_list
+    ON todos (created_by, group_id, is_completed, created_at DESC, id DESC);
+
+-- TodoService.getAllByDeadline: ORDER BY deadline DESC, created_at DESC, only rows with a deadline
+CREATE INDEX IF NOT EXISTS idx_todos_owner_deadline
+    ON todos (created_by, deadline DESC, created_at DESC)
+    WHERE deadline IS NOT NULL;
+
+-- Foreign key side of groups deletion
+CREATE INDEX IF NOT EXISTS idx_todos_group
+    ON todos (group_id);
+
+-- GroupService.getAllByUsername (ORDER BY order_index DESC) and countByCreatedBy
+CREATE INDEX IF NOT EXISTS idx_groups_owner_order
+    ON groups (created_by, order_index DESC);
@@ -0,0 +1,4 @@
+-- Todo ids come from a pooled sequence (allocationSize 50) so Hibernate can batch inserts.
+-- Start above every existing id; the pooled optimizer hands out the 50 values up to each nextval.
+CREATE SEQUENCE IF NOT EXISTS todos_seq INCREMENT BY 50;
+SELECT setval('todos_seq', COALESCE((SELECT MAX(id) FROM todos), 0) + 51, false);
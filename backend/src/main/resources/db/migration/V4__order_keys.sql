@@ -0,0 +1,20 @@
+-- Sparse ordering keys: a move writes only the moved row.
+-- Groups keep their current order, spaced 65536 apart; order_index is no longer written.
+ALTER TABLE groups ADD COLUMN IF NOT EXISTS order_key BIGINT;
+UPDATE groups SET order_key = order_index::BIGINT * 65536 WHERE order_key IS NULL;
+ALTER TABLE groups ALTER COLUMN order_key SET NOT NULL;
+ALTER TABLE groups ALTER COLUMN order_index DROP NOT NULL;
+
+DROP INDEX IF EXISTS idx_groups_owner_order;
+CREATE INDEX IF NOT EXISTS idx_groups_owner_order_key
+    ON groups (created_by, order_key DESC, id DESC);
+
+-- Todos start in creation order, newest first (smallest key), like OrderKeys.forNewTodo
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS order_key BIGINT;
+UPDATE todos
+SET order_key = -(EXTRACT(EPOCH FROM COALESCE(created_at, now())) * 1000)::BIGINT * 1024
+WHERE order_key IS NULL;
+ALTER TABLE todos ALTER COLUMN order_key SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_todos_owner_group_order_key
+    ON todos (created_by, group_id, order_key, id);
@@ -0,0 +1,56 @@
+-- Delta sync: every written row is stamped with the id of its writing transaction,
+-- deletions leave a tombstone stamped the same way.
+-- A sync token is the xmin of the reader's snapshot, every transaction still invisible to that
+-- reader has an id >= xmin, so "change_seq >= token" never misses a late commit.
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE groups ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION stamp_change_seq() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := pg_current_xact_id()::text::BIGINT;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS todos_change_seq ON todos;
+CREATE TRIGGER todos_change_seq BEFORE INSERT OR UPDATE ON todos
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_seq();
+DROP TRIGGER IF EXISTS groups_change_seq ON groups;
+CREATE TRIGGER groups_change_seq BEFORE INSERT OR UPDATE ON groups
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_seq();
+
+CREATE TABLE IF NOT EXISTS tombstones (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_by    VARCHAR(255),
+    resource_type VARCHAR(16)  NOT NULL,
+    resource_id   BIGINT       NOT NULL,
+    change_seq    BIGINT       NOT NULL,
+    deleted_at    TIMESTAMP(6) NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION record_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO tombstones (created_by, resource_type, resource_id, change_seq, deleted_at)
+    VALUES (OLD.created_by, TG_ARGV[0], OLD.id, pg_current_xact_id()::text::BIGINT, now());
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS todos_tombstone ON todos;
+CREATE TRIGGER todos_tombstone AFTER DELETE ON todos
+    FOR EACH ROW EXECUTE FUNCTION record_tombstone('TODO');
+DROP TRIGGER IF EXISTS groups_tombstone ON groups;
+CREATE TRIGGER groups_tombstone AFTER DELETE ON groups
+    FOR EACH ROW EXECUTE FUNCTION record_tombstone('GROUP');
+
+-- Tokens older than the newest purged tombstone can no longer be answered with a delta
+CREATE TABLE IF NOT EXISTS sync_horizon (
+    id         INTEGER PRIMARY KEY CHECK (id = 1),
+    change_seq BIGINT NOT NULL
+);
+INSERT INTO sync_horizon (id, change_seq) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_todos_owner_change_seq ON todos (created_by, change_seq);
+CREATE INDEX IF NOT EXISTS idx_groups_owner_change_seq ON groups (created_by, change_seq);
+CREATE INDEX IF NOT EXISTS idx_tombstones_owner_change_seq ON tombstones (created_by, change_seq);
+CREATE INDEX IF NOT EXISTS idx_tombstones_deleted_at ON tombstones (deleted_at);
@@ -0,0 +1,18 @@
+-- Full-text search over title (weight A) and description (weight B).
+-- 'simple' keeps words unstemmed, titles mix Chinese and English.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- btree_gin puts created_by into the same GIN index, a search never touches other users' postings
+CREATE INDEX IF NOT EXISTS idx_todos_owner_search
+    ON todos USING GIN (created_by, search_vector);
+
+-- Substring fallback for words the tsvector cannot split, e.g. a run of Chinese characters
+CREATE INDEX IF NOT EXISTS idx_todos_owner_title_trgm
+    ON todos USING GIN (created_by, title gin_trgm_ops);
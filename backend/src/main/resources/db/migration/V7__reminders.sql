@@ -0,0 +1,28 @@
+-- Reminder scheduler: reminded_at marks todos whose reminder fired.
+-- A changed deadline clears it so the new deadline reminds again.
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS reminded_at TIMESTAMP(6);
+
+CREATE OR REPLACE FUNCTION reset_reminded_at() RETURNS trigger AS $$
+BEGIN
+    IF NEW.deadline IS DISTINCT FROM OLD.deadline THEN
+        NEW.reminded_at := NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS todos_reset_reminded_at ON todos;
+CREATE TRIGGER todos_reset_reminded_at BEFORE UPDATE OF deadline ON todos
+    FOR EACH ROW EXECUTE FUNCTION reset_reminded_at();
+
+-- Window scan of ReminderScheduler across all users, only pending reminders are indexed
+CREATE INDEX IF NOT EXISTS idx_todos_reminder_due
+    ON todos (deadline)
+    WHERE reminded_at IS NULL;
+
+-- Leader election, one row per lease held by the node that renews it before expires_at
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name       VARCHAR(64)  PRIMARY KEY,
+    owner      VARCHAR(128) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
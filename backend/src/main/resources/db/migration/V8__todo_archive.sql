@@ -0,0 +1,48 @@
+-- Hot/cold split: completed todos older than application.archive.after move to todos_archive,
+-- so the list indexes of todos only cover the hot set.
+-- completed_at is kept by trigger; todos completed before this migration count from their creation.
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS completed_at TIMESTAMP(6);
+UPDATE todos SET completed_at = COALESCE(created_at, now())
+WHERE is_completed IS TRUE AND completed_at IS NULL;
+
+CREATE OR REPLACE FUNCTION stamp_completed_at() RETURNS trigger AS $$
+BEGIN
+    IF NEW.is_completed IS NOT TRUE THEN
+        NEW.completed_at := NULL;
+    ELSIF TG_OP = 'INSERT' OR OLD.is_completed IS NOT TRUE THEN
+        NEW.completed_at := COALESCE(NEW.completed_at, now());
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS todos_completed_at ON todos;
+CREATE TRIGGER todos_completed_at BEFORE INSERT OR UPDATE ON todos
+    FOR EACH ROW EXECUTE FUNCTION stamp_completed_at();
+
+-- TodoArchiveService: oldest completed first, only completed rows are indexed
+CREATE INDEX IF NOT EXISTS idx_todos_completed_at
+    ON todos (completed_at)
+    WHERE is_completed IS TRUE;
+
+-- Cold set, rows keep their id so toggleCompleted can move them back
+CREATE TABLE IF NOT EXISTS todos_archive (
+    id           BIGINT       PRIMARY KEY,
+    created_by   VARCHAR(255),
+    group_id     BIGINT       REFERENCES groups (id) ON DELETE SET NULL,
+    title        VARCHAR(255) NOT NULL,
+    description  VARCHAR(255),
+    created_at   TIMESTAMP(6),
+    deadline     TIMESTAMP(6),
+    order_key    BIGINT       NOT NULL,
+    completed_at TIMESTAMP(6) NOT NULL,
+    archived_at  TIMESTAMP(6) NOT NULL
+);
+
+-- GET /api/todo/archive: ORDER BY completed_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_todos_archive_owner_completed
+    ON todos_archive (created_by, completed_at DESC, id DESC);
+
+-- Foreign key side of groups deletion
+CREATE INDEX IF NOT EXISTS idx_todos_archive_group
+    ON todos_archive (group_id);
@@ -0,0 +1,24 @@
+-- Recurring todos: a series is one row with recurrence_rule, its deadline is the first occurrence.
+-- Occurrences are expanded when read; only completed or edited ones become exception rows,
+-- pointing at the series with the original start of the occurrence they replace.
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS recurrence_rule VARCHAR(255);
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS recurrence_parent_id BIGINT REFERENCES todos (id) ON DELETE SET NULL;
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS occurrence_date TIMESTAMP(6);
+
+ALTER TABLE todos DROP CONSTRAINT IF EXISTS todos_recurrence_check;
+ALTER TABLE todos ADD CONSTRAINT todos_recurrence_check CHECK (
+    (recurrence_rule IS NULL OR deadline IS NOT NULL)
+    AND (recurrence_parent_id IS NULL OR recurrence_rule IS NULL));
+
+-- One exception per occurrence, also the lookup of exceptions inside an expanded window
+CREATE UNIQUE INDEX IF NOT EXISTS idx_todos_occurrence
+    ON todos (recurrence_parent_id, occurrence_date)
+    WHERE recurrence_parent_id IS NOT NULL;
+
+-- Series of a user, loaded for every expanded window
+CREATE INDEX IF NOT EXISTS idx_todos_owner_series
+    ON todos (created_by)
+    WHERE recurrence_rule IS NOT NULL;
+
+-- Archived series keep their rule when toggleCompleted restores them
+ALTER TABLE todos_archive ADD COLUMN IF NOT EXISTS recurrence_rule VARCHAR(255);
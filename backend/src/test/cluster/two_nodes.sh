@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Two-node check on one machine: a change made on one node must reach the other.
+# Starts two backends on 8080 and 8082 with the cluster bus enabled, then
+#   1. reads the groups on node B and keeps its ETag,
+#   2. creates a group on node A,
+#   3. expects node B to answer the old ETag with 200 instead of 304,
+#   4. expects a change event on node B's stream for a todo created on node A.
+#
+#   mvn -DskipTests package
+#   TOKEN=<access token> DB_PASSWORD=... src/test/cluster/two_nodes.sh
+set -euo pipefail
+
+JAR=$(ls target/backend-*.jar | grep -v plain | head -1)
+NODE_A=http://localhost:8080
+NODE_B=http://localhost:8082
+AUTH="Authorization: Bearer ${TOKEN:?TOKEN is required}"
+LOGS=target/cluster
+mkdir -p "$LOGS"
+
+cleanup() { kill $(jobs -p) 2>/dev/null || true; }
+trap cleanup EXIT
+
+CLUSTER_ENABLED=true MANAGEMENT_PORT=8081 java -jar "$JAR" --server.port=8080 --application.reminder.enabled=false > "$LOGS/node-a.log" 2>&1 &
+CLUSTER_ENABLED=true MANAGEMENT_PORT=8083 java -jar "$JAR" --server.port=8082 --application.reminder.enabled=false > "$LOGS/node-b.log" 2>&1 &
+
+for port in 8081 8083; do
+  for _ in $(seq 60); do
+    curl -sf "http://127.0.0.1:$port/actuator/health" > /dev/null && break
+    sleep 1
+  done
+done
+
+etag=$(curl -sf -D - -o /dev/null -H "$AUTH" "$NODE_B/api/group" | tr -d '\r' | awk -F': ' 'tolower($1)=="etag" {print $2}')
+echo "node B groups ETag $etag"
+
+curl -sf -H "$AUTH" -H 'Content-Type: application/json' \
+  -d "{\"name\":\"cluster-$(date +%s)\",\"description\":\"two_nodes.sh\"}" "$NODE_A/api/group" > /dev/null
+
+status=304
+for _ in $(seq 20); do
+  status=$(curl -s -o /dev/null -w '%{http_code}' -H "$AUTH" -H "If-None-Match: $etag" "$NODE_B/api/group")
+  [ "$status" = 200 ] && break
+  sleep 0.25
+done
+[ "$status" = 200 ] || { echo "FAIL: node B still answers 304 after a change on node A"; exit 1; }
+echo "ok: node B invalidated its groups"
+
+curl -sN -H "$AUTH" -H 'Accept: text/event-stream' "$NODE_B/api/stream" > "$LOGS/stream-b.txt" &
+sleep 1
+curl -sf -H "$AUTH" -H 'Content-Type: application/json' \
+  -d '{"title":"cluster check","description":"two_nodes.sh"}' "$NODE_A/api/todo/add" > /dev/null
+for _ in $(seq 20); do
+  grep -q '^event:change' "$LOGS/stream-b.txt" && break
+  sleep 0.25
+done
+grep -q '^event:change' "$LOGS/stream-b.txt" || { echo "FAIL: no change event on node B's stream"; exit 1; }
+echo "ok: node B streamed the change"
+
+grep -h "Missed cluster messages" "$LOGS"/node-*.log && echo "note: gaps were detected" || true
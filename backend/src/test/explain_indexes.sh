@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Plans every statement of explain_indexes.sql and checks it is served by the index named in its header.
+# A "seek <column>" header also requires the scans of that index to seek on the column: an Index Cond naming it
+# and no "Rows Removed by Filter" in those plan nodes, so a scan that reads the whole index and filters fails.
+# Exits non-zero when a plan does not scan that index.
+#
+#   psql -d arlist -f src/test/insert_test_user.sql -f src/test/load/seed_todos.sql
+#   PGDATABASE=arlist src/test/explain_indexes.sh
+set -euo pipefail
+
+SQL="$(dirname "$0")/explain_indexes.sql"
+checked=0
+failed=0
+
+while IFS=$'\t' read -r index seek statement; do
+  checked=$((checked + 1))
+  plan=$(psql -X -q -A -t -v ON_ERROR_STOP=1 -c "$statement")
+  problem=""
+  if ! grep -Eq "((Index|Index Only) Scan( Backward)? using|Bitmap Index Scan on) $index( |\$)" <<< "$plan"; then
+    problem="index not used"
+  elif [ "$seek" != "-" ]; then
+    # Lines of the plan nodes scanning the index, up to the next node or sub-plan
+    nodes=$(awk -v index_name="$index" '
+      /->|^[^ ]|InitPlan|SubPlan/ { in_node = ($0 ~ ("using " index_name "( |$)")) }
+      in_node
+    ' <<< "$plan")
+    if ! grep -Eq "Index Cond: .*\b$seek\b" <<< "$nodes"; then
+      problem="no Index Cond on $seek"
+    elif grep -q "Rows Removed by Filter" <<< "$nodes"; then
+      problem="rows removed by filter"
+    fi
+  fi
+  if [ -z "$problem" ]; then
+    echo "ok   $index$([ "$seek" = "-" ] || echo " (seek $seek)")"
+  else
+    failed=$((failed + 1))
+    echo "FAIL $index: $problem"
+    sed 's/^/     /' <<< "$plan"
+  fi
+done < <(awk '
+  /^-- idx_/ { name = $2; seek = ($3 == "seek" && $4 != "") ? $4 : "-"; next }
+  /^EXPLAIN/ { statement = $0; collecting = 1; next }
+  collecting {
+    statement = statement " " $0
+    if ($0 ~ /;[[:space:]]*$/) { print name "\t" seek "\t" statement; collecting = 0 }
+  }
+' "$SQL")
+
+echo "$checked plans checked, $failed failed"
+[ "$checked" -gt 0 ] && [ "$failed" -eq 0 ]
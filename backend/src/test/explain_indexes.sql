@@ -0,0 +1,120 @@
+-- Queries of the application, each headed by the index that should serve it.
+-- explain_indexes.sh plans every statement and fails unless the named index is used.
+-- "seek <column>" after the index also requires an Index Cond on that column and no rows removed by a filter:
+--   psql -d arlist -f src/test/insert_test_user.sql -f src/test/load/seed_todos.sql
+--   PGDATABASE=arlist src/test/explain_indexes.sh
+-- The planner runs with its defaults, so the check needs the load data; on near-empty tables a Seq Scan is cheaper.
+
+-- idx_todos_owner_list
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos
+WHERE created_by = 'test'
+ORDER BY is_completed, created_at DESC, id DESC
+LIMIT 21;
+
+-- idx_todos_owner_list seek created_at
+-- Keyset continuation from deep in the open rows: the cursor must be an Index Cond, not a filter
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos
+WHERE created_by = 'test' AND is_completed = false
+  AND (created_at, id) < (SELECT created_at, id FROM todos
+                          WHERE created_by = 'test' AND is_completed = false
+                          ORDER BY created_at DESC, id DESC OFFSET 50000 LIMIT 1)
+ORDER BY created_at DESC, id DESC
+LIMIT 21;
+
+-- idx_todos_owner_group_list seek created_at
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos
+WHERE created_by = 'test' AND group_id = (SELECT min(id) FROM groups WHERE created_by = 'test')
+  AND is_completed = true
+  AND (created_at, id) < (SELECT created_at, id FROM todos
+                          WHERE created_by = 'test' AND is_completed = true
+                          ORDER BY created_at DESC, id DESC OFFSET 20000 LIMIT 1)
+ORDER BY created_at DESC, id DESC
+LIMIT 21;
+
+-- idx_todos_owner_group_list
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos
+WHERE created_by = 'test' AND group_id = 1
+ORDER BY is_completed, created_at DESC, id DESC
+LIMIT 21;
+
+-- idx_todos_owner_deadline
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos
+WHERE created_by = 'test' AND deadline IS NOT NULL
+ORDER BY deadline DESC, created_at DESC
+LIMIT 20;
+
+-- idx_groups_owner_order_key
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM groups
+WHERE created_by = 'test'
+ORDER BY order_key DESC, id DESC;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT max(order_key) FROM groups
+WHERE created_by = 'test';
+
+-- idx_todos_owner_group_order_key
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM todos
+WHERE created_by = 'test' AND group_id = 1
+ORDER BY order_key, id
+LIMIT 20;
+
+-- idx_todos_owner_search
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, ts_rank(t.search_vector, to_tsquery('simple', 'buy:* & mil:*')) AS rank
+FROM todos t
+WHERE t.created_by = 'test' AND t.search_vector @@ to_tsquery('simple', 'buy:* & mil:*')
+ORDER BY rank DESC, id DESC
+LIMIT 21;
+
+-- idx_todos_owner_title_trgm
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, similarity(t.title, '报告') AS rank
+FROM todos t
+WHERE t.created_by = 'test' AND t.title ILIKE '%报告%'
+ORDER BY rank DESC, id DESC
+LIMIT 21;
+
+-- idx_todos_reminder_due
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, t.created_by, t.title, t.deadline
+FROM todos t
+WHERE t.deadline >= now() - INTERVAL '1 hour' AND t.deadline < now() + INTERVAL '25 minutes'
+  AND t.reminded_at IS NULL AND (t.is_completed IS NULL OR t.is_completed = false)
+ORDER BY t.deadline
+LIMIT 100000;
+
+-- idx_todos_completed_at
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM todos
+WHERE is_completed IS TRUE AND completed_at < now() - INTERVAL '30 days'
+ORDER BY completed_at
+LIMIT 1000;
+
+-- idx_todos_archive_owner_completed
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT a.id, a.title, a.created_at, a.deadline, g.id, g.name
+FROM todos_archive a LEFT JOIN groups g ON g.id = a.group_id
+WHERE a.created_by = 'test'
+ORDER BY a.completed_at DESC, a.id DESC
+LIMIT 20;
+
+-- idx_todos_owner_series
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.id, t.title, t.deadline, t.recurrence_rule
+FROM todos t
+WHERE t.created_by = 'test' AND t.recurrence_rule IS NOT NULL
+  AND t.deadline <= now() + INTERVAL '7 days' AND (t.is_completed IS NULL OR t.is_completed = false);
+
+-- idx_todos_occurrence
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.recurrence_parent_id, t.occurrence_date
+FROM todos t
+WHERE t.recurrence_parent_id IN (1, 2, 3)
+  AND t.occurrence_date BETWEEN now() AND now() + INTERVAL '7 days';
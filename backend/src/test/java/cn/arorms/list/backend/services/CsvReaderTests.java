@@ -0,0 +1,103 @@
+package cn.arorms.list.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CSV and line reading of TodoTransferService, no database involved.
+ */
+class CsvReaderTests {
+
+    @Test
+    void quotedFieldKeepsLineBreaks() throws IOException {
+        TodoTransferService.CsvReader csv = reader("title,description\n\"Buy milk\",\"first\nsecond\"\nNext,\n");
+        assertEquals(List.of("title", "description"), csv.next());
+        assertEquals(List.of("Buy milk", "first\nsecond"), csv.next());
+        assertEquals(List.of("Next", ""), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void doubledQuotesAreOneQuote() throws IOException {
+        TodoTransferService.CsvReader csv = reader("\"Say \"\"hi\"\"\",\"\"\"\",\"a,b\"");
+        assertEquals(List.of("Say \"hi\"", "\"", "a,b"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void crlfEndsRecordsOutsideQuotes() throws IOException {
+        TodoTransferService.CsvReader csv = reader("a,b\r\n\"c\r\nd\",e\r\n");
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("c\r\nd", "e"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void byteOrderMarkIsSkipped() throws IOException {
+        BufferedReader in = TodoTransferService.openReader(
+                new ByteArrayInputStream("\uFEFFtitle,group\r\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of("title", "group"), new TodoTransferService.CsvReader(in).next());
+    }
+
+    @Test
+    void inputWithoutByteOrderMarkIsKept() throws IOException {
+        BufferedReader in = TodoTransferService.openReader(
+                new ByteArrayInputStream("title\r\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of("title"), new TodoTransferService.CsvReader(in).next());
+    }
+
+    // A record spanning lines moves the start line of the next one
+    @Test
+    void recordLineCountsPhysicalLines() throws IOException {
+        TodoTransferService.CsvReader csv = reader("title\r\n\"one\r\ntwo\r\nthree\"\r\nnext\r\n\r\nlast");
+        csv.next();
+        assertEquals(1, csv.recordLine());
+        csv.next();
+        assertEquals(2, csv.recordLine());
+        csv.next();
+        assertEquals(5, csv.recordLine());
+        assertEquals(List.of(""), csv.next());
+        assertEquals(6, csv.recordLine());
+        assertEquals(List.of("last"), csv.next());
+        assertEquals(7, csv.recordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void readLineDropsTerminators() throws IOException {
+        StringReader in = new StringReader("one\r\ntwo\n\nthree");
+        StringBuilder line = new StringBuilder();
+        assertTrue(TodoTransferService.readLine(in, line));
+        assertEquals("one", line.toString());
+        assertTrue(TodoTransferService.readLine(in, line));
+        assertEquals("two", line.toString());
+        assertTrue(TodoTransferService.readLine(in, line));
+        assertEquals("", line.toString());
+        assertTrue(TodoTransferService.readLine(in, line));
+        assertEquals("three", line.toString());
+        assertFalse(TodoTransferService.readLine(in, line));
+    }
+
+    @Test
+    void formulaCellsAreWrittenBehindAQuote() throws IOException {
+        StringWriter out = new StringWriter();
+        TodoTransferService.writeCsvRow(out, new String[]{"=SUM(A1:A2)", "+1", "-1", "@cmd", "plain", null, "=a,b"});
+        assertEquals("'=SUM(A1:A2),'+1,'-1,'@cmd,plain,,\"'=a,b\"\r\n", out.toString());
+    }
+
+    private static TodoTransferService.CsvReader reader(String text) {
+        return new TodoTransferService.CsvReader(new BufferedReader(new StringReader(text)));
+    }
+}
@@ -0,0 +1,119 @@
+package cn.arorms.list.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Expansion of recurrence rules, no database involved.
+ */
+class RecurrenceRuleTests {
+    private static final LocalDateTime FAR = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    // A window far after the start skips the periods before it, it must find what a full expansion finds
+    @Test
+    void windowAfterStartMatchesFullExpansion() {
+        List<String> rules = List.of("FREQ=DAILY", "FREQ=DAILY;INTERVAL=3", "FREQ=WEEKLY;INTERVAL=2",
+                "FREQ=WEEKLY;BYDAY=MO,WE,SU", "FREQ=WEEKLY;INTERVAL=3;BYDAY=TU,SA", "FREQ=MONTHLY",
+                "FREQ=MONTHLY;INTERVAL=5", "FREQ=YEARLY", "FREQ=WEEKLY;BYDAY=TH;UNTIL=20270301");
+        List<LocalDateTime> starts = List.of(LocalDateTime.of(2024, 1, 31, 9, 30),
+                LocalDateTime.of(2024, 2, 29, 0, 0), LocalDateTime.of(2025, 12, 28, 23, 59));
+        for (String text : rules) {
+            RecurrenceRule rule = RecurrenceRule.parse(text);
+            for (LocalDateTime start : starts) {
+                List<LocalDateTime> all = rule.occurrences(start, start, FAR, RecurrenceRule.MAX_OCCURRENCES);
+                for (LocalDateTime from = start.minusDays(3); from.isBefore(start.plusYears(2)); from = from.plusDays(17)) {
+                    LocalDateTime to = from.plusDays(45);
+                    LocalDateTime windowStart = from;
+                    List<LocalDateTime> expected = all.stream()
+                            .filter(date -> !date.isBefore(windowStart) && date.isBefore(to))
+                            .toList();
+                    assertEquals(expected, rule.occurrences(start, from, to, RecurrenceRule.MAX_OCCURRENCES),
+                            text + " from " + start + " in [" + from + ", " + to + ")");
+                }
+            }
+        }
+    }
+
+    // Months without a 31st have no occurrence, the series does not move to the 30th or 28th
+    @Test
+    void monthlyOnThe31stSkipsShortMonths() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY");
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 8, 0);
+        assertEquals(List.of(start, at(2025, 3, 31), at(2025, 5, 31), at(2025, 7, 31), at(2025, 8, 31)),
+                rule.occurrences(start, start, at(2025, 9, 1), 10));
+    }
+
+    @Test
+    void yearlyOnFebruary29thOnlyInLeapYears() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=YEARLY");
+        LocalDateTime start = LocalDateTime.of(2024, 2, 29, 8, 0);
+        assertEquals(List.of(start, at(2028, 2, 29), at(2032, 2, 29)),
+                rule.occurrences(start, start, at(2033, 1, 1), 10));
+    }
+
+    // COUNT counts from the start even when the window begins later
+    @Test
+    void countLimitsOccurrencesFromTheStart() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;COUNT=3");
+        LocalDateTime start = at(2026, 1, 1);
+        assertEquals(List.of(start, at(2026, 1, 2), at(2026, 1, 3)), rule.occurrences(start, start, FAR, 10));
+        assertEquals(List.of(at(2026, 1, 3)), rule.occurrences(start, at(2026, 1, 3), FAR, 10));
+    }
+
+    // A date-only UNTIL includes occurrences later that day
+    @Test
+    void untilIncludesItsDay() {
+        LocalDateTime start = at(2026, 1, 1);
+        assertEquals(List.of(start, at(2026, 1, 2), at(2026, 1, 3)),
+                RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260103").occurrences(start, start, FAR, 10));
+        assertEquals(List.of(start, at(2026, 1, 2)),
+                RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260103T075959").occurrences(start, start, FAR, 10));
+    }
+
+    @Test
+    void countAndUntilAreExclusive() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=3;UNTIL=20260103"));
+    }
+
+    // Listed in any order, occurrences come out in date order and the stored form is canonical
+    @Test
+    void byDayOccurrencesAreInDateOrder() {
+        RecurrenceRule rule = RecurrenceRule.parse("rrule:freq=weekly;byday=fr,mo,we");
+        assertEquals("FREQ=WEEKLY;BYDAY=MO,WE,FR", rule.toString());
+        LocalDateTime start = at(2026, 1, 7); // Wednesday
+        assertEquals(List.of(start, at(2026, 1, 9), at(2026, 1, 12), at(2026, 1, 14), at(2026, 1, 16)),
+                rule.occurrences(start, start, at(2026, 1, 17), 10));
+    }
+
+    // RFC 5545: the start is the first occurrence and counts toward COUNT, even outside BYDAY
+    @Test
+    void startOutsideByDayIsTheFirstOccurrence() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,TH;COUNT=3");
+        LocalDateTime start = at(2026, 1, 6); // Tuesday
+        assertEquals(List.of(start, at(2026, 1, 8), at(2026, 1, 12)), rule.occurrences(start, start, FAR, 10));
+        assertFalse(rule.occursAt(start, at(2026, 1, 13)));
+    }
+
+    @Test
+    void occursAtMatchesOnlyExpandedDates() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO");
+        LocalDateTime start = at(2026, 1, 5); // Monday
+        assertTrue(rule.occursAt(start, start));
+        assertTrue(rule.occursAt(start, at(2026, 1, 19)));
+        assertTrue(rule.occursAt(start, at(2027, 1, 4)));
+        assertFalse(rule.occursAt(start, at(2026, 1, 12)));
+        assertFalse(rule.occursAt(start, at(2026, 1, 19).plusMinutes(1)));
+        assertFalse(rule.occursAt(start, at(2025, 12, 22)));
+    }
+
+    private static LocalDateTime at(int year, int month, int day) {
+        return LocalDateTime.of(year, month, day, 8, 0);
+    }
+}
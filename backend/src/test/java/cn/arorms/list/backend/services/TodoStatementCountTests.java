@@ -0,0 +1,145 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.entities.Group;
+import cn.arorms.list.backend.pojos.entities.Todo;
+import cn.arorms.list.backend.repositories.GroupRepository;
+import cn.arorms.list.backend.repositories.TodoRepository;
+import cn.arorms.list.backend.utils.OrderKeys;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statements per request, counted by the Hibernate statistics (hibernate.generate_statistics).
+ * Runs against the configured database like BackendApplicationTests, every test rolls back.
+ * Background jobs are held off so the global counters only see the measured calls.
+ */
+@SpringBootTest(properties = {
+        "application.reminder.enabled=false",
+        "application.reminder.lease-renew-ms=3600000"
+})
+@Transactional
+class TodoStatementCountTests {
+    private static final String USERNAME = "statement-count-test";
+
+    @Autowired
+    private TodoService todoService;
+    @Autowired
+    private TodoRepository todoRepository;
+    @Autowired
+    private GroupRepository groupRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private Todo todo;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        todo = todoRepository.save(Todo.builder().createdBy(USERNAME).title("Count me").build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Before: load by owner, flip, flush the dirty entity
+    @Test
+    void toggleIsOneStatement() {
+        long before = count(() -> {
+            Todo loaded = todoRepository.findByIdAndCreatedBy(todo.getId(), USERNAME).orElseThrow();
+            loaded.setIsCompleted(!loaded.getIsCompleted());
+        });
+        long after = count(() -> todoService.toggleCompleted(USERNAME, todo.getId()));
+        assertSingleStatement("toggle", before, after);
+    }
+
+    // Before: existence check, then save of the request body, which merges with a select first
+    @Test
+    void updateIsOneStatement() {
+        long before = count(() -> {
+            assertTrue(todoRepository.existsById(todo.getId()));
+            todoRepository.save(copyOf(todo, "Renamed before"));
+        });
+        long after = count(() -> todoService.updateTodo(USERNAME, copyOf(todo, "Renamed after")));
+        assertSingleStatement("update", before, after);
+    }
+
+    // Before: load by owner, then delete the loaded entity
+    @Test
+    void deleteIsOneStatement() {
+        Todo other = todoRepository.save(Todo.builder().createdBy(USERNAME).title("Delete me").build());
+        entityManager.flush();
+        entityManager.clear();
+        long before = count(() -> todoRepository.delete(
+                todoRepository.findByIdAndCreatedBy(other.getId(), USERNAME).orElseThrow()));
+        long after = count(() -> todoService.deleteTodo(USERNAME, todo.getId()));
+        assertSingleStatement("delete", before, after);
+    }
+
+    // One select for the page and one count, however many groups its todos are spread over
+    @Test
+    void pageIsOneSelectAndOneCount() {
+        for (int g = 0; g < 3; g++) {
+            Group group = groupRepository.save(Group.builder()
+                    .name("Group " + g).orderKey(g * OrderKeys.GAP).createdBy(USERNAME).build());
+            for (int i = 0; i < 4; i++) {
+                todoRepository.save(Todo.builder().createdBy(USERNAME).title("Todo " + g + "-" + i).group(group).build());
+            }
+        }
+        entityManager.flush();
+        // Serialized as well, a lazy group touched while writing the response would show up as another select
+        long statements = count(() -> serialize(
+                todoService.getAllByUsername(Pageable.ofSize(5).withPage(0), USERNAME, null)));
+        assertEquals(2, statements);
+    }
+
+    private void serialize(Object body) {
+        try {
+            objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Prepared statements of one call, pending writes included
+    private long count(Runnable call) {
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+
+    private static Todo copyOf(Todo todo, String title) {
+        Todo copy = new Todo();
+        copy.setId(todo.getId());
+        copy.setCreatedBy(USERNAME);
+        copy.setTitle(title);
+        copy.setIsCompleted(false);
+        copy.setCreatedAt(todo.getCreatedAt());
+        copy.setOrderKey(todo.getOrderKey());
+        return copy;
+    }
+
+    // The counts of both paths go into the failure message
+    private static void assertSingleStatement(String operation, long before, long after) {
+        String counts = operation + ": " + before + " statements read-modify-write, " + after + " now";
+        assertEquals(1, after, counts);
+        assertTrue(after < before, counts);
+    }
+}
@@ -0,0 +1,101 @@
+package cn.arorms.list.backend.services;
+
+import cn.arorms.list.backend.pojos.dtos.ImportResult;
+import cn.arorms.list.backend.pojos.entities.Todo;
+import cn.arorms.list.backend.repositories.TodoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * CSV import and export against the configured database like BackendApplicationTests, every test rolls back.
+ */
+@SpringBootTest(properties = "application.reminder.enabled=false")
+@Transactional
+class TodoTransferServiceTests {
+    private static final String USERNAME = "transfer-test";
+
+    @Autowired
+    private TodoTransferService todoTransferService;
+    @Autowired
+    private TodoRepository todoRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    // Excel saves UTF-8 CSV with a byte order mark, the title column must still be found
+    @Test
+    void importReadsHeaderBehindByteOrderMark() throws IOException {
+        ImportResult result = importCsv("\uFEFFtitle,group\r\nBuy milk,Transfer\r\n");
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getGroupsCreated());
+        assertEquals(List.of("Buy milk"), titles());
+    }
+
+    // Errors name the line the record starts on, counting the lines inside quoted fields
+    @Test
+    void importReportsStartLineOfRejectedRecords() throws IOException {
+        ImportResult result = importCsv("title,description,deadline\r\n" +
+                "First,\"spans\r\ntwo lines\",\r\n" +
+                ",no title,\r\n" +
+                "Third,,not a date\r\n" +
+                "Fourth,,2026-11-01\r\n");
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(
+                "Line 4: Title must be between 1 and 255 characters.",
+                "Line 5: Invalid date."), result.getErrors());
+    }
+
+    // Imported todos are listed in the order of their lines, not all at the same new-todo key
+    @Test
+    void importKeepsLineOrder() throws IOException {
+        importCsv("title,group\r\nFirst,Transfer\r\nSecond,Transfer\r\nThird,Transfer\r\n");
+        assertEquals(List.of("First", "Second", "Third"), titles());
+    }
+
+    // The quote in front of a formula-like cell is dropped again on import
+    @Test
+    void exportedFormulaCellsImportUnchanged() throws IOException {
+        importCsv("title,description\r\n\"=HYPERLINK(\"\"x\"\")\",-5 minutes\r\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        todoTransferService.exportCsv(USERNAME, out);
+        String exported = out.toString(StandardCharsets.UTF_8);
+        todoRepository.deleteAll(todos());
+        entityManager.flush();
+
+        importCsv(exported);
+        Todo imported = todos().get(0);
+        assertEquals("=HYPERLINK(\"x\")", imported.getTitle());
+        assertEquals("-5 minutes", imported.getDescription());
+    }
+
+    private ImportResult importCsv(String csv) throws IOException {
+        ImportResult result = todoTransferService.importCsv(USERNAME,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        entityManager.flush();
+        return result;
+    }
+
+    private List<String> titles() {
+        return todos().stream().map(Todo::getTitle).toList();
+    }
+
+    // In export order, the manual order of the list
+    private List<Todo> todos() {
+        entityManager.clear();
+        try (Stream<Todo> todos = todoRepository.streamByCreatedBy(USERNAME)) {
+            return todos.toList();
+        }
+    }
+}
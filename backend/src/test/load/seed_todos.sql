@@ -0,0 +1,40 @@
+-- Load test data for the user of insert_test_user.sql: 10 groups, 100k todos, 200 series and 20k archived todos.
+-- Ids come from todos_seq like the ones Hibernate allocates, so later inserts never collide.
+INSERT INTO groups (name, description, created_by, order_key)
+SELECT 'Group ' || g, 'Seeded group ' || g, 'test', g::BIGINT * 65536
+FROM generate_series(1, 10) AS g;
+
+INSERT INTO todos (id, created_by, group_id, title, description, is_completed, created_at, deadline, order_key)
+SELECT nextval('todos_seq'),
+       'test',
+       (SELECT id FROM groups WHERE created_by = 'test' ORDER BY id OFFSET (i % 10) LIMIT 1),
+       'Task ' || i || ' ' || (ARRAY ['prepare report', 'team meeting', 'buy milk', 'review code', '整理报告'])[1 + i % 5],
+       CASE WHEN i % 4 = 0 THEN 'Details of task ' || i END,
+       i % 3 = 0,
+       now() - (i || ' minutes')::INTERVAL,
+       CASE WHEN i % 5 = 0 THEN now() + ((i % 14 - 7) || ' days')::INTERVAL END,
+       -(EXTRACT(EPOCH FROM now() - (i || ' minutes')::INTERVAL) * 1000)::BIGINT * 1024
+FROM generate_series(1, 100000) AS i;
+
+-- Weekly series with their first occurrences completed as exception rows
+INSERT INTO todos (id, created_by, title, is_completed, created_at, deadline, order_key, recurrence_rule)
+SELECT nextval('todos_seq'), 'test', 'Series ' || i, false, now() - (i || ' days')::INTERVAL,
+       date_trunc('day', now()) - (i || ' days')::INTERVAL, 0, 'FREQ=WEEKLY'
+FROM generate_series(1, 200) AS i;
+
+INSERT INTO todos (id, created_by, title, is_completed, created_at, deadline, order_key,
+                   recurrence_parent_id, occurrence_date)
+SELECT nextval('todos_seq'), 'test', s.title, true, s.created_at, s.deadline + (k || ' weeks')::INTERVAL, 0,
+       s.id, s.deadline + (k || ' weeks')::INTERVAL
+FROM todos s, generate_series(0, 4) AS k
+WHERE s.created_by = 'test' AND s.recurrence_rule IS NOT NULL;
+
+-- Cold set of todos_archive
+INSERT INTO todos_archive (id, created_by, title, created_at, order_key, completed_at, archived_at)
+SELECT nextval('todos_seq'), 'test', 'Archived task ' || i, now() - (i || ' hours')::INTERVAL, 0,
+       now() - (i || ' minutes')::INTERVAL, now()
+FROM generate_series(1, 20000) AS i;
+
+ANALYZE groups;
+ANALYZE todos;
+ANALYZE todos_archive;
@@ -0,0 +1,39 @@
+// Read-path load test, compares the default platform-thread mode with the virtual profile.
+//
+//   mvn spring-boot:run                                                  # platform threads
+//   mvn spring-boot:run -Dspring-boot.run.profiles=virtual               # virtual threads
+//   k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<access token> \
+//          --summary-export=target/load-<mode>.json src/test/load/todo_read.js
+//
+// Compare http_reqs (throughput) and http_req_duration p(99) of both summaries.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const params = { headers: { Authorization: `Bearer ${__ENV.TOKEN}` } };
+
+export const options = {
+    scenarios: {
+        burst: {
+            executor: 'ramping-arrival-rate',
+            startRate: 50,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { target: 500, duration: '30s' },
+                { target: 2000, duration: '30s' },
+                { target: 500, duration: '30s' },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const page = Math.floor(Math.random() * 5);
+    const todos = http.get(`${BASE_URL}/api/todo?page=${page}&size=20`, params);
+    check(todos, { 'todos 200': (r) => r.status === 200 });
+    const groups = http.get(`${BASE_URL}/api/group`, params);
+    check(groups, { 'groups 200': (r) => r.status === 200 });
+}
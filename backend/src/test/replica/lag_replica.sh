@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# Pauses WAL replay on the local replica of start_replica.sh for the given seconds, then resumes.
+# Writes made meanwhile are invisible on the replica, the backend should skip it after max-lag.
+set -euo pipefail
+SECONDS_PAUSED=${1:-10}
+psql -p 5433 -U postgres -c "SELECT pg_wal_replay_pause()" > /dev/null
+echo "replay paused for ${SECONDS_PAUSED}s"
+sleep "$SECONDS_PAUSED"
+psql -p 5433 -U postgres -c "SELECT pg_wal_replay_resume()" > /dev/null
+echo "replay resumed"
@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Local primary plus streaming replica for trying the read/write split on one machine.
+# Needs the PostgreSQL server binaries (initdb, pg_ctl, pg_basebackup) on PATH.
+#
+#   src/test/replica/start_replica.sh                  # primary on 5432, replica on 5433
+#   psql -p 5432 -U postgres -f src/test/insert_test_user.sql arlist
+#   DB_PASSWORD=postgres mvn spring-boot:run \
+#     -Dspring-boot.run.arguments=--application.datasource.replica-urls=jdbc:postgresql://localhost:5433/arlist
+#
+# Then, using the .http files under src/test/http:
+#   - listings run on the replica, SELECT count(*) FROM pg_stat_activity WHERE datname = 'arlist' on port 5433
+#     counts the replica pool's connections,
+#   - a listing right after a change of the same user reads the primary (read-your-writes),
+#   - src/test/replica/lag_replica.sh pauses replay, after max-lag the replica is skipped,
+#   - pg_ctl -D target/pg/replica stop falls back to the primary without failed requests,
+#   - /actuator/prometheus on the management port reports datasource_replica_lag_seconds.
+set -euo pipefail
+
+BASE=${PG_BASE:-target/pg}
+PRIMARY=$BASE/primary
+REPLICA=$BASE/replica
+mkdir -p "$BASE"
+
+if [ ! -d "$PRIMARY" ]; then
+  initdb -D "$PRIMARY" -U postgres --auth=trust > /dev/null
+  cat >> "$PRIMARY/postgresql.conf" <<CONF
+port = 5432
+wal_level = replica
+max_wal_senders = 4
+hot_standby = on
+CONF
+  echo "host replication postgres 127.0.0.1/32 trust" >> "$PRIMARY/pg_hba.conf"
+fi
+pg_ctl -D "$PRIMARY" -l "$BASE/primary.log" -w start
+psql -p 5432 -U postgres -tc "SELECT 1 FROM pg_database WHERE datname = 'arlist'" | grep -q 1 \
+  || psql -p 5432 -U postgres -c "CREATE DATABASE arlist"
+psql -p 5432 -U postgres -c "ALTER USER postgres PASSWORD 'postgres'" > /dev/null
+
+if [ ! -d "$REPLICA" ]; then
+  pg_basebackup -h 127.0.0.1 -p 5432 -U postgres -D "$REPLICA" -R -X stream
+  echo "port = 5433" >> "$REPLICA/postgresql.conf"
+fi
+pg_ctl -D "$REPLICA" -l "$BASE/replica.log" -w start
+
+psql -p 5433 -U postgres -tc "SELECT pg_is_in_recovery()"
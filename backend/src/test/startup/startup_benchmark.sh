@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Startup time and memory of the plain jar against the fast build (AOT + CDS) and, if built, the native image.
+# Each mode starts RUNS times after one discarded warm-up start; a run ends once /actuator/health is UP.
+# Reported per run: Spring's "process running for" seconds, wall time until healthy, and RSS when healthy.
+#
+#   mvn -DskipTests package && cp target/backend-0.0.1-SNAPSHOT.jar target/plain.jar
+#   mvn -Pfast -DskipTests package                         # target/fast, needs the database for the training run
+#   mvn -Pnative,fast -DskipTests native:compile            # optional, target/backend
+#   DB_PASSWORD=... RUNS=10 src/test/startup/startup_benchmark.sh
+#
+# Results go to target/startup-report.csv; keep the machine otherwise idle and the database warm.
+set -euo pipefail
+
+RUNS=${RUNS:-10}
+PORT=${PORT:-8080}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8081}
+JAVA_OPTS=${JAVA_OPTS:--Xmx512m}
+REPORT=target/startup-report.csv
+LOG=target/startup.log
+export MANAGEMENT_PORT
+
+declare -A MODES
+MODES[jar]="java $JAVA_OPTS -jar target/plain.jar --server.port=$PORT"
+MODES[fast]="java $JAVA_OPTS -XX:SharedArchiveFile=target/fast/application.jsa -Dspring.aot.enabled=true -jar target/fast/backend-0.0.1-SNAPSHOT.jar --spring.profiles.active=fast --server.port=$PORT"
+if [ -x target/backend ]; then
+  MODES[native]="target/backend -Xmx512m --spring.profiles.active=fast --server.port=$PORT"
+fi
+
+now_ms() { date +%s%3N; }
+
+run_once() {
+  local command=$1 start pid healthy_ms rss started
+  start=$(now_ms)
+  $command > "$LOG" 2>&1 &
+  pid=$!
+  until curl -sf "http://127.0.0.1:$MANAGEMENT_PORT/actuator/health" | grep -q UP; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "process exited, see $LOG" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+  healthy_ms=$(( $(now_ms) - start ))
+  rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+  started=$(grep -o 'process running for [0-9.]*' "$LOG" | awk '{print $4}')
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$started,$healthy_ms,$rss"
+}
+
+echo "mode,run,started_s,healthy_ms,rss_kb" > "$REPORT"
+for mode in "${!MODES[@]}"; do
+  run_once "${MODES[$mode]}" > /dev/null
+  for run in $(seq "$RUNS"); do
+    echo "$mode,$run,$(run_once "${MODES[$mode]}")" | tee -a "$REPORT"
+  done
+done
+
+echo
+echo "median per mode (started_s healthy_ms rss_kb):"
+for mode in "${!MODES[@]}"; do
+  for column in 3 4 5; do
+    grep "^$mode," "$REPORT" | cut -d, -f$column | sort -n | awk '{a[NR]=$1} END {printf "%s ", a[int((NR+1)/2)]}'
+  done | sed "s/^/$mode: /"
+  echo
+done
@@ -26,7 +26,7 @@ export const EditTodoModal: React.FC<EditTodoModalProps> = ({
     useEffect(() => {
         if (todo) {
             setTitle(todo.title);
-            setDescription(todo.description);
+            setDescription(todo.description ?? '');
             setSelectedGroupId(todo.group?.id ?? null);
             setDeadline(todo.deadline || '');
         }
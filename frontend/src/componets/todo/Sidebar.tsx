@@ -1,6 +1,6 @@
 import React, { useState, useRef, useEffect } from 'react';
 import { Hash, Plus, Folder, MoreVertical, Edit, Trash2, Sun, Moon, GripVertical, ArrowUpDown } from 'lucide-react';
-import { Group } from '../../types';
+import { Group, GroupStats } from '../../types';
 import { useTheme } from '../../contexts/ThemeContext';
 import {
     DndContext,
@@ -28,7 +28,8 @@ interface SidebarProps {
     onAddGroup: () => void;
     onModifyGroup: (group: Group) => void;
     onDeleteGroup: (groupId: number) => void;
-    onReorderGroups: (reorderedGroups: Group[]) => void;
+    onReorderGroups: (reorderedGroups: Group[], movedGroupId: number) => void;
+    stats?: Record<number, GroupStats>;
 }
 
 interface SortableGroupItemProps {
@@ -167,7 +168,8 @@ export const Sidebar: React.FC<SidebarProps> = ({
     onAddGroup,
     onModifyGroup,
     onDeleteGroup,
-    onReorderGroups
+    onReorderGroups,
+    stats
 }) => {
     const [openDropdownId, setOpenDropdownId] = useState<number | null>(null);
     const [activeDragId, setActiveDragId] = useState<number | null>(null);
@@ -219,7 +221,7 @@ export const Sidebar: React.FC<SidebarProps> = ({
                     ...group,
                     orderIndex: reorderedGroups.length - 1 - index, // Reverse so top has largest number
                 }));
-                onReorderGroups(updatedGroups);
+                onReorderGroups(updatedGroups, active.id as number);
             }
         }
     };
@@ -343,6 +345,11 @@ export const Sidebar: React.FC<SidebarProps> = ({
                                         <Folder size={18} className={activeId === group.id ? 'text-indigo-500 dark:text-indigo-400' : 'text-slate-400 dark:text-dark-text-muted'} />
                                         <span className="truncate">{group.name}</span>
                                     </div>
+                                    {stats?.[group.id] && stats[group.id].total > stats[group.id].completed && (
+                                        <span className={`text-xs tabular-nums ${stats[group.id].overdue > 0 ? 'text-red-500' : 'text-slate-400 dark:text-dark-text-muted'}`}>
+                                            {stats[group.id].total - stats[group.id].completed}
+                                        </span>
+                                    )}
                                     <button
                                         onClick={(e) => handleDropdownToggle(group.id, e)}
                                         className={`p-1 rounded transition-opacity hover:bg-slate-300 dark:hover:bg-dark-bg-elevated ${
@@ -1,17 +1,19 @@
 
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { Sidebar } from '../componets/todo/Sidebar.tsx';
 import { TodoItem } from '../componets/todo/TodoItem.tsx';
 import { EditTodoModal } from '../componets/todo/EditTodoModal.tsx';
 import { EditGroupModal } from '../componets/todo/EditGroupModal.tsx';
 import { Plus, LayoutList, Loader, Menu, X, LogOut } from 'lucide-react';
-import type {Group, Todo, TodoCreateRequest, PaginatedResponse} from '../types.ts';
-import { groupApi, todoApi } from '../utils/api.ts';
+import type {Group, GroupStats, Todo, TodoCreateRequest, PaginatedResponse} from '../types.ts';
+import { groupApi, todoApi, statsApi, subscribeChanges } from '../utils/api.ts';
+import type { ChangeEvent } from '../utils/api.ts';
 import { useAuth } from '../contexts/AuthContext';
 
 export const TodoPage: React.FC = () => {
     const { logout: authContextLogout } = useAuth();
     const [groups, setGroups] = useState<Group[]>([]);
+    const [groupStats, setGroupStats] = useState<Record<number, GroupStats>>({});
     const [todos, setTodos] = useState<Todo[]>([]);
     const [activeId, setActiveId] = useState<string | number>('all');
     const [inputValue, setInputValue] = useState('');
@@ -34,8 +36,22 @@ export const TodoPage: React.FC = () => {
     useEffect(() => {
         loadGroups();
         loadTodos(0, true); // Initial load
+        loadStats();
     }, []);
 
+    // Changes made on other devices arrive over the change stream instead of polling
+    const changeHandler = useRef<(event: ChangeEvent) => void>(() => {});
+    changeHandler.current = (event: ChangeEvent) => {
+        if (event.type === 'GROUP') {
+            loadGroups();
+        } else {
+            loadTodos(0, true);
+        }
+        loadStats();
+    };
+
+    useEffect(() => subscribeChanges((event) => changeHandler.current(event)), []);
+
     useEffect(() => {
         // When activeId changes, reset todos and load first page
         setTodos([]);
@@ -51,6 +67,19 @@ export const TodoPage: React.FC = () => {
         }
     };
 
+    const loadStats = async () => {
+        try {
+            const stats = await statsApi.getStats();
+            const byGroup: Record<number, GroupStats> = {};
+            stats.groups.forEach((entry) => {
+                if (entry.groupId !== null) byGroup[entry.groupId] = entry;
+            });
+            setGroupStats(byGroup);
+        } catch (error) {
+            console.error('Failed to load stats:', error);
+        }
+    };
+
      const loadTodos = async (page: number, reset: boolean = false) => {
         if (page === 0 && !reset) return;
         
@@ -159,10 +188,16 @@ export const TodoPage: React.FC = () => {
         }
     };
 
-    const handleModifyTodo = (id: number) => {
+    const handleModifyTodo = async (id: number) => {
         const todo = todos.find(t => t.id === id);
         if (todo) {
-            setEditingTodo(todo);
+            // List pages leave out descriptions, load the full todo for editing
+            try {
+                setEditingTodo(await todoApi.getTodo(id));
+            } catch (error) {
+                console.error('Failed to load todo:', error);
+                setEditingTodo(todo);
+            }
             setIsTodoModalOpen(true);
         }
     };
@@ -212,15 +247,15 @@ export const TodoPage: React.FC = () => {
         }
     };
 
-    const handleReorderGroups = async (reorderedGroups: Group[]) => {
+    const handleReorderGroups = async (reorderedGroups: Group[], movedGroupId: number) => {
         try {
             // Update local state immediately for responsive UI
             setGroups(reorderedGroups);
             
-            // Send update for each group that changed position
-            // We need to update the orderIndex for all groups since positions changed
-            for (const group of reorderedGroups) {
-                await groupApi.updateGroupOrder(group);
+            // The backend moves the dragged group to its new position without touching the others
+            const movedGroup = reorderedGroups.find(group => group.id === movedGroupId);
+            if (movedGroup) {
+                await groupApi.updateGroupOrder(movedGroup);
             }
             
             // Reload groups to ensure consistency with backend
@@ -283,6 +318,7 @@ export const TodoPage: React.FC = () => {
                     onModifyGroup={handleModifyGroup}
                     onDeleteGroup={handleDeleteGroup}
                     onReorderGroups={handleReorderGroups}
+                    stats={groupStats}
                 />
             </div>
 
@@ -305,6 +341,7 @@ export const TodoPage: React.FC = () => {
                     onModifyGroup={handleModifyGroup}
                     onDeleteGroup={handleDeleteGroup}
                     onReorderGroups={handleReorderGroups}
+                    stats={groupStats}
                 />
             </div>
 
@@ -3,21 +3,47 @@ export interface Group {
     name: string;
     description: string;
     orderIndex: number | null;
+    orderKey?: number;
 }
 
 export interface Todo {
     id: number;
     group: Group | null;
     title: string;
-    description: string;
+    // Only present on the detail endpoint, list pages leave it out
+    description?: string;
     isCompleted: boolean;
     createdAt: string;
     deadline: string | null;
+    // RRULE of a recurring todo, its deadline is the first occurrence
+    recurrenceRule?: string;
+    // Set on occurrences of a series, expanded ones from the upcoming deadline view have no id of their own
+    recurrenceParentId?: number;
+    occurrenceDate?: string;
+}
+
+export interface GroupStats {
+    groupId: number | null;
+    total: number;
+    completed: number;
+    overdue: number;
+    dueSoon: number;
+}
+
+export interface TodoStats {
+    asOf: string;
+    total: number;
+    completed: number;
+    overdue: number;
+    dueSoon: number;
+    groups: GroupStats[];
 }
 
 export interface TodoCreateRequest {
     title: string;
     description?: string;
+    deadline?: string;
+    recurrenceRule?: string;
     group?: {
         id: number;
     };
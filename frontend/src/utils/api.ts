@@ -1,5 +1,5 @@
 import axios, { AxiosError, AxiosInstance, InternalAxiosRequestConfig } from 'axios';
-import type { Group, Todo, TodoCreateRequest, PaginatedResponse } from '../types.ts';
+import type { Group, Todo, TodoCreateRequest, PaginatedResponse, TodoStats } from '../types.ts';
 
 // Define authentication types
 export interface LoginRequest {
@@ -143,11 +143,17 @@ export const todoApi = {
   getAllTodos: (page = 0, size = 20): Promise<PaginatedResponse<Todo>> =>
     api.get(`/api/todo?page=${page}&size=${size}`).then((response) => response.data),
 
+  getTodo: (id: number): Promise<Todo> =>
+    api.get(`/api/todo/${id}`).then((response) => response.data),
+
   addTodo: (todo: TodoCreateRequest): Promise<Todo> =>
     api.post('/api/todo/add', todo).then((response) => response.data),
 
-  toggleCompleteTodo: (id: number): Promise<Todo> =>
-    api.put(`/api/todo/toggleComplete/${id}`).then((response) => response.data),
+  // With occurrence, id is the series and only that occurrence is toggled
+  toggleCompleteTodo: (id: number, occurrence?: string): Promise<Todo> =>
+    api.put(occurrence
+      ? `/api/todo/toggleComplete/${id}?occurrence=${encodeURIComponent(occurrence)}`
+      : `/api/todo/toggleComplete/${id}`).then((response) => response.data),
 
   deleteTodo: (id: number): Promise<void> =>
     api.delete(`/api/todo/${id}`),
@@ -156,6 +162,71 @@ export const todoApi = {
     api.put('/api/todo', todo).then((response) => response.data),
 };
 
+// Stats API
+export const statsApi = {
+  getStats: (days = 3): Promise<TodoStats> =>
+    api.get(`/api/stats?days=${days}`).then((response) => response.data),
+};
+
+// Change stream, EventSource cannot send the bearer token so the stream is read with fetch
+export interface ChangeEvent {
+  type: 'TODO' | 'GROUP';
+  version: number;
+  upserted: number[];
+  deleted: number[];
+  resync: boolean;
+}
+
+export const subscribeChanges = (onChange: (event: ChangeEvent) => void): (() => void) => {
+  const controller = new AbortController();
+  let retryDelay = 1000;
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const token = getOidcToken();
+        const response = await fetch('/api/stream', {
+          headers: token ? { Authorization: `Bearer ${token}`, Accept: 'text/event-stream' } : {},
+          signal: controller.signal,
+        });
+        if (!response.ok || !response.body) {
+          throw new Error(`Stream failed: ${response.status}`);
+        }
+        retryDelay = 1000;
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value;
+          let boundary;
+          while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+            const lines = block.split('\n');
+            const name = lines.find((line) => line.startsWith('event:'))?.slice(6).trim();
+            const data = lines.filter((line) => line.startsWith('data:')).map((line) => line.slice(5)).join('\n');
+            if (name === 'change' && data) {
+              onChange(JSON.parse(data));
+            } else if (name === 'ready') {
+              // Anything may have changed while disconnected
+              onChange({ type: 'GROUP', version: 0, upserted: [], deleted: [], resync: true });
+              onChange({ type: 'TODO', version: 0, upserted: [], deleted: [], resync: true });
+            }
+          }
+        }
+      } catch (e) {
+        if (controller.signal.aborted) return;
+      }
+      await new Promise((resolve) => setTimeout(resolve, retryDelay));
+      retryDelay = Math.min(retryDelay * 2, 30000);
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};
+
 // Export the axios instance for custom requests if needed
 export { api };
 